@@ -18,7 +18,10 @@ import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
 
 public class IcedTeaMod implements ClientModInitializer {
     public static final String MOD_ID = "icedtea";
@@ -45,6 +48,19 @@ public class IcedTeaMod implements ClientModInitializer {
 
         registerCommands();
 
+        ClientChunkEvents.CHUNK_LOAD.register((level, chunk) ->
+            cullingSystem.getSectionTracker().onChunkLoad(level, chunk));
+        ClientChunkEvents.CHUNK_UNLOAD.register((level, chunk) -> {
+            cullingSystem.getSectionTracker().onChunkUnload(level, chunk);
+            cullingSystem.onChunkUnload(chunk.getPos());
+        });
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) ->
+            cullingSystem.getBiomeOptimizer().onTagsLoaded());
+        ClientEntityEvents.ENTITY_LOAD.register((entity, level) ->
+            cullingSystem.getDensityOptimizer().onEntityLoad(entity, level));
+        ClientEntityEvents.ENTITY_UNLOAD.register((entity, level) ->
+            cullingSystem.getDensityOptimizer().onEntityUnload(entity, level));
+
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
         if (!modEnabled) return;
         preloadTickCounter++;
@@ -136,8 +152,18 @@ public class IcedTeaMod implements ClientModInitializer {
                 "Options:\n" +
                 "  occlusionCullingEnabled [true|false]\n" +
                 "  undergroundCullingEnabled [true|false]\n" +
+                "  caveCullingEnabled [true|false]\n" +
+                "  hiZCullingEnabled [true|false]\n" +
+                "  incrementalCullingEnabled [true|false]\n" +
+                "  pipelinedCullingEnabled [true|false]\n" +
+                "  horizonCullingEnabled [true|false]\n" +
+                "  terrainCullingEnabled [true|false]\n" +
+                "  compileSchedulingEnabled [true|false]\n" +
+                "  resortThrottlingEnabled [true|false]\n" +
                 "  occlusionAggressiveness [float]\n" +
                 "  occlusionCacheSize [int]\n" +
+                "  occludedEvictionSeconds [int]\n" +
+                "  cullingBudgetMicros [int]\n" +
                 "  entityCullingEnabled [true|false]\n" +
                 "  entityCullingDistance [double]\n" +
                 "  entityLODEnabled [true|false]\n" +
@@ -190,12 +216,42 @@ public class IcedTeaMod implements ClientModInitializer {
                         case "undergroundcullingenabled":
                             cfg.setUndergroundCullingEnabled(Boolean.parseBoolean(value));
                             success = true; break;
+                        case "cavecullingenabled":
+                            cfg.setCaveCullingEnabled(Boolean.parseBoolean(value));
+                            success = true; break;
+                        case "hizcullingenabled":
+                            cfg.setHiZCullingEnabled(Boolean.parseBoolean(value));
+                            success = true; break;
+                        case "incrementalcullingenabled":
+                            cfg.setIncrementalCullingEnabled(Boolean.parseBoolean(value));
+                            success = true; break;
+                        case "pipelinedcullingenabled":
+                            cfg.setPipelinedCullingEnabled(Boolean.parseBoolean(value));
+                            success = true; break;
+                        case "horizoncullingenabled":
+                            cfg.setHorizonCullingEnabled(Boolean.parseBoolean(value));
+                            success = true; break;
+                        case "terraincullingenabled":
+                            cfg.setTerrainCullingEnabled(Boolean.parseBoolean(value));
+                            success = true; break;
+                        case "compileschedulingenabled":
+                            cfg.setCompileSchedulingEnabled(Boolean.parseBoolean(value));
+                            success = true; break;
+                        case "resortthrottlingenabled":
+                            cfg.setResortThrottlingEnabled(Boolean.parseBoolean(value));
+                            success = true; break;
                         case "occlusionaggressiveness":
                             cfg.setOcclusionAggressiveness(Float.parseFloat(value));
                             success = true; break;
                         case "occlusioncachesize":
                             cfg.setOcclusionCacheSize(Integer.parseInt(value));
                             success = true; break;
+                        case "occludedevictionseconds":
+                            cfg.setOccludedEvictionSeconds(Integer.parseInt(value));
+                            success = true; break;
+                        case "cullingbudgetmicros":
+                            cfg.setCullingBudgetMicros(Integer.parseInt(value));
+                            success = true; break;
                         case "entitycullingenabled":
                             cfg.setEntityCullingEnabled(Boolean.parseBoolean(value));
                             success = true; break;
@@ -1,6 +1,7 @@
 package com.tejas.icedtea.client;
 
 import com.tejas.icedtea.IcedTeaMod;
+import com.tejas.icedtea.culling.CullingStageStats;
 import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
@@ -19,6 +20,12 @@ public class IcedTeaHudOverlay implements HudRenderCallback {
     private static final AtomicInteger totalParticles = new AtomicInteger(0);
     private static final AtomicInteger particlesRendered = new AtomicInteger(0);
 
+    private static final AtomicLong cacheHits = new AtomicLong(0);
+    private static final AtomicLong cacheMisses = new AtomicLong(0);
+    private static final AtomicLong cacheEvictions = new AtomicLong(0);
+
+    private static volatile CullingStageStats stageStats;
+
     private static final AtomicLong frameTimeSum = new AtomicLong(0);
     private static final AtomicInteger frameCount = new AtomicInteger(0);
 
@@ -37,6 +44,16 @@ public class IcedTeaHudOverlay implements HudRenderCallback {
         particlesRendered.set(rendered);
     }
 
+    public static void updateCacheStats(long hits, long misses, long evictions) {
+        cacheHits.set(hits);
+        cacheMisses.set(misses);
+        cacheEvictions.set(evictions);
+    }
+
+    public static void setStageStats(CullingStageStats stats) {
+        stageStats = stats;
+    }
+
     public static void recordFrameTime(long nanos) {
         frameTimeSum.addAndGet(nanos);
         frameCount.incrementAndGet();
@@ -79,16 +96,41 @@ public class IcedTeaHudOverlay implements HudRenderCallback {
         return (culled * 100.0) / total;
     }
 
+    private static double getCacheHitRate() {
+        long hits = cacheHits.get();
+        long total = hits + cacheMisses.get();
+        if (total == 0) return 0.0;
+        return (hits * 100.0) / total;
+    }
+
     private static String getStatsString() {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("FPS: %d\n", getCurrentFPS()));
         sb.append(String.format("Avg Frame Time: %.2f ms\n", getAverageFrameTime()));
-        sb.append(String.format("Chunks: %d / %d (%.1f%% culled)\n",
+        sb.append(String.format("Sections: %d / %d (%.1f%% culled)\n",
                 chunksRendered.get(), totalChunksLoaded.get(), getChunkCullingEfficiency()));
         sb.append(String.format("Entities: %d / %d (%.1f%% culled)\n",
                 entitiesRendered.get(), totalEntities.get(), getEntityCullingEfficiency()));
         sb.append(String.format("Particles: %d / %d (%.1f%% culled)\n",
                 particlesRendered.get(), totalParticles.get(), getParticleCullingEfficiency()));
+        sb.append(String.format("Visibility Cache: %.1f%% hits, %d evicted\n",
+                getCacheHitRate(), cacheEvictions.get()));
+        CullingStageStats stats = stageStats;
+        if (stats != null) {
+            sb.append(String.format("Render Cache: %.1f%% hits, %d stale\n",
+                    stats.getHitRate(CullingStageStats.Stage.RENDER_CACHE),
+                    stats.getStale(CullingStageStats.Stage.RENDER_CACHE)));
+            sb.append(String.format("Culled By: Cave %d, Portal %d, Horizon %d, Near Tiles %d, Underground %d\n",
+                    stats.getHits(CullingStageStats.Stage.CAVE),
+                    stats.getHits(CullingStageStats.Stage.PORTAL),
+                    stats.getHits(CullingStageStats.Stage.HORIZON),
+                    stats.getHits(CullingStageStats.Stage.TILE_OCCLUDER),
+                    stats.getHits(CullingStageStats.Stage.UNDERGROUND)));
+            sb.append(String.format("Culled By: Distance %d, Hi-Z %d, Raycast %d\n",
+                    stats.getHits(CullingStageStats.Stage.DISTANCE),
+                    stats.getHits(CullingStageStats.Stage.HIZ),
+                    stats.getHits(CullingStageStats.Stage.RAYCAST)));
+        }
         return sb.toString();
     }
     @Override
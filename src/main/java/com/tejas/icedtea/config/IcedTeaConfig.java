@@ -28,8 +28,18 @@ public class IcedTeaConfig {
     public void setImportantParticles(List<String> particles) { this.importantParticles = particles; }
     private boolean occlusionCullingEnabled = true;
     private boolean undergroundCullingEnabled = true;
+    private boolean caveCullingEnabled = true;
+    private boolean hiZCullingEnabled = true;
+    private boolean incrementalCullingEnabled = true;
+    private boolean pipelinedCullingEnabled = true;
+    private boolean horizonCullingEnabled = true;
+    private boolean terrainCullingEnabled = true;
+    private boolean compileSchedulingEnabled = true;
+    private boolean resortThrottlingEnabled = true;
     private float occlusionAggressiveness = 0.8f;
     private int occlusionCacheSize = 2048;
+    private int occludedEvictionSeconds = 60;
+    private int cullingBudgetMicros = 2000;
     
     private boolean entityCullingEnabled = true;
     private double entityCullingDistance = 128.0;
@@ -86,8 +96,18 @@ public class IcedTeaConfig {
     
     public boolean isOcclusionCullingEnabled() { return occlusionCullingEnabled; }
     public boolean isUndergroundCullingEnabled() { return undergroundCullingEnabled; }
+    public boolean isCaveCullingEnabled() { return caveCullingEnabled; }
+    public boolean isHiZCullingEnabled() { return hiZCullingEnabled; }
+    public boolean isIncrementalCullingEnabled() { return incrementalCullingEnabled; }
+    public boolean isPipelinedCullingEnabled() { return pipelinedCullingEnabled; }
+    public boolean isHorizonCullingEnabled() { return horizonCullingEnabled; }
+    public boolean isTerrainCullingEnabled() { return terrainCullingEnabled; }
+    public boolean isCompileSchedulingEnabled() { return compileSchedulingEnabled; }
+    public boolean isResortThrottlingEnabled() { return resortThrottlingEnabled; }
     public float getOcclusionAggressiveness() { return occlusionAggressiveness; }
     public int getOcclusionCacheSize() { return occlusionCacheSize; }
+    public int getOccludedEvictionSeconds() { return occludedEvictionSeconds; }
+    public int getCullingBudgetMicros() { return cullingBudgetMicros; }
     
     public boolean isEntityCullingEnabled() { return entityCullingEnabled; }
     public double getEntityCullingDistance() { return entityCullingDistance; }
@@ -125,8 +145,18 @@ public class IcedTeaConfig {
     public long getCacheValidityMs() { return cacheValidityMs; }
     public void setCacheValidityMs(long ms) { this.cacheValidityMs = ms; }
     public void setUndergroundCullingEnabled(boolean value) { this.undergroundCullingEnabled = value; }
+    public void setCaveCullingEnabled(boolean value) { this.caveCullingEnabled = value; }
+    public void setHiZCullingEnabled(boolean value) { this.hiZCullingEnabled = value; }
+    public void setIncrementalCullingEnabled(boolean value) { this.incrementalCullingEnabled = value; }
+    public void setPipelinedCullingEnabled(boolean value) { this.pipelinedCullingEnabled = value; }
+    public void setHorizonCullingEnabled(boolean value) { this.horizonCullingEnabled = value; }
+    public void setTerrainCullingEnabled(boolean value) { this.terrainCullingEnabled = value; }
+    public void setCompileSchedulingEnabled(boolean value) { this.compileSchedulingEnabled = value; }
+    public void setResortThrottlingEnabled(boolean value) { this.resortThrottlingEnabled = value; }
     public void setOcclusionAggressiveness(float value) { this.occlusionAggressiveness = value; }
     public void setOcclusionCacheSize(int value) { this.occlusionCacheSize = value; }
+    public void setOccludedEvictionSeconds(int value) { this.occludedEvictionSeconds = value; }
+    public void setCullingBudgetMicros(int value) { this.cullingBudgetMicros = value; }
     public void setEntityCullingDistance(double value) { this.entityCullingDistance = value; }
     public void setEntityLODEnabled(boolean value) { this.entityLODEnabled = value; }
     public void setParticleCullingDistance(double value) { this.particleCullingDistance = value; }
@@ -0,0 +1,213 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.IcedTeaMod;
+import com.tejas.icedtea.util.ThreadPoolManager;
+import net.minecraft.core.SectionPos;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class CaveFloodFill {
+    private static final byte REACHED = 1 << 6;
+
+    private final SectionDataTracker sectionTracker;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Result published;
+
+    public CaveFloodFill(SectionDataTracker sectionTracker) {
+        this.sectionTracker = sectionTracker;
+    }
+
+    public void requestUpdate(long cameraSectionKey, int radius, int minSection, int maxSection) {
+        int cameraY = SectionPos.y(cameraSectionKey);
+        if (cameraY < minSection || cameraY >= maxSection) {
+            return;
+        }
+
+        int version = sectionTracker.getConnectivityVersion();
+        Result current = published;
+        if (current != null && current.cameraSectionKey == cameraSectionKey
+            && current.radius == radius && current.version == version
+            && current.minSection == minSection && current.height == maxSection - minSection) {
+            return;
+        }
+
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        ThreadPoolManager.execute(() -> {
+            try {
+                published = flood(cameraSectionKey, radius, minSection, maxSection, version);
+            } catch (Exception e) {
+                IcedTeaMod.LOGGER.error("Error in cave flood fill", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    public boolean isColumnHidden(int chunkX, int chunkZ, long cameraSectionKey) {
+        Result result = published;
+        if (result == null || result.cameraSectionKey != cameraSectionKey) {
+            return false;
+        }
+        return !result.isColumnReachable(chunkX, chunkZ);
+    }
+
+    public boolean isSectionHidden(int sectionX, int sectionY, int sectionZ, long cameraSectionKey) {
+        Result result = published;
+        if (result == null || result.cameraSectionKey != cameraSectionKey) {
+            return false;
+        }
+        return !result.isSectionReachable(sectionX, sectionY, sectionZ);
+    }
+
+    public boolean isRegionHidden(int fromX, int fromZ, int toX, int toZ, long cameraSectionKey) {
+        Result result = published;
+        if (result == null || result.cameraSectionKey != cameraSectionKey) {
+            return false;
+        }
+        return result.coverage.isEmpty(fromX, fromZ, toX, toZ);
+    }
+
+    public void clear() {
+        published = null;
+    }
+
+    private Result flood(long cameraSectionKey, int radius, int minSection, int maxSection, int version) {
+        int originX = SectionPos.x(cameraSectionKey);
+        int originY = SectionPos.y(cameraSectionKey);
+        int originZ = SectionPos.z(cameraSectionKey);
+        int width = radius * 2 + 1;
+        int height = maxSection - minSection;
+
+        Result result = new Result(cameraSectionKey, originX, originZ, radius, minSection, height, version);
+        byte[] cells = result.cells;
+
+        int[] queue = new int[4096];
+        int head = 0;
+        int tail = 0;
+
+        int start = result.index(originX, originY, originZ);
+        cells[start] = (byte) (REACHED | 0x3F);
+        result.columns[radius * width + radius] = true;
+
+        for (int face = 0; face < SectionConnectivity.FACE_COUNT; face++) {
+            if (queue.length == tail) queue = grow(queue);
+            queue[tail++] = encode(start, SectionConnectivity.opposite(face), 1 << face);
+        }
+
+        while (head < tail) {
+            int entry = queue[head++];
+            int fromIndex = entry & 0x1FFFFF;
+            int enterFace = (entry >>> 21) & 7;
+            int directions = (entry >>> 24) & 0x3F;
+            int stepFace = SectionConnectivity.opposite(enterFace);
+
+            int x = result.cellX(fromIndex) + SectionConnectivity.STEP_X[stepFace];
+            int y = result.cellY(fromIndex) + SectionConnectivity.STEP_Y[stepFace];
+            int z = result.cellZ(fromIndex) + SectionConnectivity.STEP_Z[stepFace];
+
+            if (Math.abs(x - originX) > radius || Math.abs(z - originZ) > radius
+                || y < minSection || y >= maxSection) {
+                continue;
+            }
+
+            int index = result.index(x, y, z);
+            int seen = cells[index];
+            if ((seen & (1 << enterFace)) != 0) {
+                continue;
+            }
+            cells[index] = (byte) (seen | REACHED | (1 << enterFace));
+            result.columns[(x - originX + radius) * width + (z - originZ + radius)] = true;
+
+            int connectivity = sectionTracker.getConnectivity(SectionPos.asLong(x, y, z));
+            for (int exit = 0; exit < SectionConnectivity.FACE_COUNT; exit++) {
+                if ((directions & (1 << SectionConnectivity.opposite(exit))) != 0) continue;
+                if (!SectionConnectivity.isConnected(connectivity, enterFace, exit)) continue;
+
+                if (queue.length == tail) {
+                    if (head > queue.length / 2) {
+                        System.arraycopy(queue, head, queue, 0, tail - head);
+                        tail -= head;
+                        head = 0;
+                    } else {
+                        queue = grow(queue);
+                    }
+                }
+                queue[tail++] = encode(index, SectionConnectivity.opposite(exit), directions | (1 << exit));
+            }
+        }
+
+        result.coverage = new ColumnCoverage(originX - radius, originZ - radius, width, result.columns);
+        return result;
+    }
+
+    private static int encode(int fromIndex, int enterFace, int directions) {
+        return fromIndex | (enterFace << 21) | (directions << 24);
+    }
+
+    private static int[] grow(int[] queue) {
+        int[] grown = new int[queue.length * 2];
+        System.arraycopy(queue, 0, grown, 0, queue.length);
+        return grown;
+    }
+
+    private static final class Result {
+        final long cameraSectionKey;
+        final int originX;
+        final int originZ;
+        final int radius;
+        final int width;
+        final int minSection;
+        final int height;
+        final int version;
+        final byte[] cells;
+        final boolean[] columns;
+        ColumnCoverage coverage;
+
+        Result(long cameraSectionKey, int originX, int originZ, int radius, int minSection, int height, int version) {
+            this.cameraSectionKey = cameraSectionKey;
+            this.originX = originX;
+            this.originZ = originZ;
+            this.radius = radius;
+            this.width = radius * 2 + 1;
+            this.minSection = minSection;
+            this.height = height;
+            this.version = version;
+            this.cells = new byte[width * width * height];
+            this.columns = new boolean[width * width];
+        }
+
+        int index(int x, int y, int z) {
+            return ((x - originX + radius) * width + (z - originZ + radius)) * height + (y - minSection);
+        }
+
+        int cellX(int index) {
+            return index / height / width - radius + originX;
+        }
+
+        int cellZ(int index) {
+            return index / height % width - radius + originZ;
+        }
+
+        int cellY(int index) {
+            return index % height + minSection;
+        }
+
+        boolean isColumnReachable(int x, int z) {
+            int dx = x - originX;
+            int dz = z - originZ;
+            if (Math.abs(dx) > radius || Math.abs(dz) > radius) return true;
+            return columns[(dx + radius) * width + (dz + radius)];
+        }
+
+        boolean isSectionReachable(int x, int y, int z) {
+            if (Math.abs(x - originX) > radius || Math.abs(z - originZ) > radius
+                || y < minSection || y >= minSection + height) {
+                return true;
+            }
+            return (cells[index(x, y, z)] & REACHED) != 0;
+        }
+    }
+}
@@ -1,60 +1,264 @@
 package com.tejas.icedtea.culling;
 
-import net.minecraft.world.level.ChunkPos;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongPredicate;
 
 public class ChunkVisibilityCache {
-    private final ConcurrentHashMap<ChunkPos, OcclusionData> cache;
-    private final ConcurrentLinkedDeque<ChunkPos> accessOrder;
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    private static final int NO_SLOT = -1;
+    private static final int STRIPES = 16;
+    private static final int BUFFER_SIZE = 64;
+    private static final long[] SEEDS = {
+        0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+
     private final int maxSize;
-    
+    private final int windowSize;
+    private final ConcurrentLongIntMap index;
+    private final AtomicLongArray slotKeys;
+    private final AtomicReferenceArray<OcclusionData> slotData;
+    private final AtomicIntegerArray referenced;
+
+    private final AtomicLongArray[] readBuffers = new AtomicLongArray[STRIPES];
+    private final AtomicInteger[] readWrites = new AtomicInteger[STRIPES];
+    private final int[] readDrains = new int[STRIPES];
+
+    private final long[] sketch;
+    private final int sketchMask;
+    private final int sampleSize;
+    private int sampleCount;
+
+    private int windowCount;
+    private int windowHand;
+    private int mainCount;
+    private int clockHand;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
     public ChunkVisibilityCache(int maxSize) {
-        this.maxSize = maxSize;
-        this.cache = new ConcurrentHashMap<>(maxSize);
-        this.accessOrder = new ConcurrentLinkedDeque<>();
-    }
-    
-    public OcclusionData get(ChunkPos chunkPos) {
-        OcclusionData data = cache.get(chunkPos);
-        if (data != null) {
-            accessOrder.remove(chunkPos);
-            accessOrder.addLast(chunkPos);
-        }
-        return data;
-    }
-    
-    public void put(ChunkPos chunkPos, OcclusionData data) {
-        if (cache.containsKey(chunkPos)) {
-            accessOrder.remove(chunkPos);
-        } else if (cache.size() >= maxSize) {
-            ChunkPos oldest = accessOrder.pollFirst();
-            if (oldest != null) {
-                cache.remove(oldest);
+        this.maxSize = Math.max(2, maxSize);
+        this.windowSize = Math.max(1, this.maxSize / 100);
+        this.index = new ConcurrentLongIntMap(this.maxSize, NO_SLOT);
+        this.slotKeys = new AtomicLongArray(this.maxSize);
+        this.slotData = new AtomicReferenceArray<>(this.maxSize);
+        this.referenced = new AtomicIntegerArray(this.maxSize);
+        for (int i = 0; i < this.maxSize; i++) {
+            slotKeys.set(i, EMPTY_KEY);
+        }
+
+        for (int i = 0; i < STRIPES; i++) {
+            readBuffers[i] = new AtomicLongArray(BUFFER_SIZE);
+            readWrites[i] = new AtomicInteger(0);
+            for (int j = 0; j < BUFFER_SIZE; j++) {
+                readBuffers[i].set(j, EMPTY_KEY);
             }
         }
-        
-        cache.put(chunkPos, data);
-        accessOrder.addLast(chunkPos);
+
+        int sketchSize = 1;
+        while (sketchSize < this.maxSize) {
+            sketchSize <<= 1;
+        }
+        this.sketch = new long[sketchSize];
+        this.sketchMask = sketchSize - 1;
+        this.sampleSize = this.maxSize * 10;
     }
-    
-    public void clear() {
-        cache.clear();
-        accessOrder.clear();
+
+    public OcclusionData get(long sectionKey) {
+        recordRead(sectionKey);
+
+        int slot = index.get(sectionKey);
+        if (slot != NO_SLOT) {
+            OcclusionData data = slotData.get(slot);
+            if (data != null && slotKeys.get(slot) == sectionKey) {
+                referenced.lazySet(slot, 1);
+                hits.increment();
+                return data;
+            }
+        }
+
+        misses.increment();
+        return null;
     }
-    
+
+    public synchronized void put(long sectionKey, OcclusionData data) {
+        drainReadBuffers();
+        increment(sectionKey);
+
+        int slot = index.get(sectionKey);
+        if (slot != NO_SLOT) {
+            slotData.set(slot, data);
+            referenced.set(slot, 1);
+            return;
+        }
+
+        if (windowCount < windowSize) {
+            assign(windowCount++, sectionKey, data);
+            return;
+        }
+
+        int windowSlot = windowHand;
+        windowHand = (windowHand + 1) % windowSize;
+        promote(windowSlot);
+        assign(windowSlot, sectionKey, data);
+    }
+
+    public synchronized void clear() {
+        index.clear();
+        for (int i = 0; i < maxSize; i++) {
+            slotKeys.set(i, EMPTY_KEY);
+            slotData.set(i, null);
+            referenced.set(i, 0);
+        }
+        windowCount = 0;
+        windowHand = 0;
+        mainCount = 0;
+        clockHand = 0;
+    }
+
     public int size() {
-        return cache.size();
+        return index.size();
     }
 
-    public void cleanExpired() {
-        long currentTime = System.currentTimeMillis();
-        cache.entrySet().removeIf(entry -> {
-            boolean expired = entry.getValue().isExpired();
-            if (expired) {
-                accessOrder.remove(entry.getKey());
+    public synchronized void removeIf(LongPredicate predicate) {
+        for (int i = 0; i < maxSize; i++) {
+            long key = slotKeys.get(i);
+            if (key != EMPTY_KEY && predicate.test(key)) {
+                index.remove(key);
+                slotKeys.set(i, EMPTY_KEY);
+                slotData.set(i, null);
+                referenced.set(i, 0);
             }
-            return expired;
-        });
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (hitCount * 100.0) / total;
+    }
+
+    private void promote(int windowSlot) {
+        long candidate = slotKeys.get(windowSlot);
+        if (candidate == EMPTY_KEY) {
+            return;
+        }
+
+        OcclusionData data = slotData.get(windowSlot);
+        int mainStart = windowSize;
+        int mainCapacity = maxSize - windowSize;
+        if (mainCount < mainCapacity) {
+            assign(mainStart + mainCount++, candidate, data);
+            return;
+        }
+
+        int victimSlot = nextVictim(mainStart, mainCapacity);
+        long victim = slotKeys.get(victimSlot);
+        if (victim != EMPTY_KEY && frequency(candidate) <= frequency(victim)) {
+            index.remove(candidate);
+            evictions.increment();
+            return;
+        }
+
+        if (victim != EMPTY_KEY) {
+            index.remove(victim);
+            evictions.increment();
+        }
+        assign(victimSlot, candidate, data);
+    }
+
+    private int nextVictim(int mainStart, int mainCapacity) {
+        while (true) {
+            int slot = mainStart + clockHand;
+            clockHand = (clockHand + 1) % mainCapacity;
+            if (slotKeys.get(slot) == EMPTY_KEY || referenced.getAndSet(slot, 0) == 0) {
+                return slot;
+            }
+        }
+    }
+
+    private void assign(int slot, long sectionKey, OcclusionData data) {
+        slotKeys.set(slot, sectionKey);
+        slotData.set(slot, data);
+        referenced.set(slot, 0);
+        index.put(sectionKey, slot);
+    }
+
+    private void recordRead(long sectionKey) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicInteger writes = readWrites[stripe];
+        int position = writes.get();
+        if (position - readDrains[stripe] >= BUFFER_SIZE) {
+            return;
+        }
+        if (writes.compareAndSet(position, position + 1)) {
+            readBuffers[stripe].lazySet(position & (BUFFER_SIZE - 1), sectionKey);
+        }
+    }
+
+    private void drainReadBuffers() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            AtomicLongArray buffer = readBuffers[stripe];
+            int end = readWrites[stripe].get();
+            for (int position = readDrains[stripe]; position != end; position++) {
+                long key = buffer.getAndSet(position & (BUFFER_SIZE - 1), EMPTY_KEY);
+                if (key != EMPTY_KEY) {
+                    increment(key);
+                }
+            }
+            readDrains[stripe] = end;
+        }
+    }
+
+    private void increment(long key) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = (key + SEEDS[i]) * SEEDS[i];
+            hash ^= hash >>> 29;
+            int slot = (int) (hash >>> 4) & sketchMask;
+            int offset = (int) (hash & 15) << 2;
+            if (((sketch[slot] >>> offset) & 15L) != 15L) {
+                sketch[slot] += 1L << offset;
+                added = true;
+            }
+        }
+
+        if (added && ++sampleCount >= sampleSize) {
+            for (int i = 0; i < sketch.length; i++) {
+                sketch[i] = (sketch[i] >>> 1) & 0x7777777777777777L;
+            }
+            sampleCount /= 2;
+        }
+    }
+
+    private int frequency(long key) {
+        int frequency = 15;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = (key + SEEDS[i]) * SEEDS[i];
+            hash ^= hash >>> 29;
+            int slot = (int) (hash >>> 4) & sketchMask;
+            int offset = (int) (hash & 15) << 2;
+            frequency = Math.min(frequency, (int) ((sketch[slot] >>> offset) & 15L));
+        }
+        return frequency;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.tejas.icedtea.culling;
+
+final class ColumnCoverage {
+    private final int minX;
+    private final int minZ;
+    private final int width;
+    private final int[] sums;
+
+    ColumnCoverage(int minX, int minZ, int width, boolean[] columns) {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.width = width;
+        this.sums = new int[(width + 1) * (width + 1)];
+        for (int x = 0; x < width; x++) {
+            int row = 0;
+            for (int z = 0; z < width; z++) {
+                if (columns[x * width + z]) row++;
+                sums[(x + 1) * (width + 1) + z + 1] = sums[x * (width + 1) + z + 1] + row;
+            }
+        }
+    }
+
+    boolean isEmpty(int fromX, int fromZ, int toX, int toZ) {
+        if (fromX < minX || fromZ < minZ || toX >= minX + width || toZ >= minZ + width) {
+            return false;
+        }
+        int x0 = fromX - minX;
+        int z0 = fromZ - minZ;
+        int x1 = toX - minX + 1;
+        int z1 = toZ - minZ + 1;
+        int stride = width + 1;
+        return sums[x1 * stride + z1] - sums[x0 * stride + z1] - sums[x1 * stride + z0] + sums[x0 * stride + z0] == 0;
+    }
+}
@@ -0,0 +1,169 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.IcedTeaMod;
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+public class CullingBudgetScheduler {
+    private static final int NEVER_TESTED = Integer.MIN_VALUE;
+    private static final float SECTION_RADIUS = 13.86f;
+    private static final float SECTION_RADIUS_SQ = SECTION_RADIUS * SECTION_RADIUS;
+    private static final float EDGE_RANGE = SECTION_RADIUS * 4.0f;
+    private static final int MAX_STALE_FRAMES = 120;
+    private static final float STALE_WEIGHT = 0.5f;
+    private static final int PRUNE_INTERVAL = 600;
+    private static final int PRUNE_AGE = 1200;
+    private static final long[] EMPTY_KEYS = new long[0];
+
+    private final ConcurrentLongIntMap lastTested = new ConcurrentLongIntMap(16384, NEVER_TESTED);
+    private final LongArrayList queuedKeys = new LongArrayList();
+    private final LongArrayList queuedOrder = new LongArrayList();
+    private final AtomicInteger drainCursor = new AtomicInteger();
+    private final AtomicInteger drainTested = new AtomicInteger();
+    private volatile long[] drainKeys = EMPTY_KEYS;
+    private volatile long drainDeadline;
+    private long drainStart;
+
+    private VisibilitySet previous;
+    private FrustumBatch frustum;
+    private Vec3 cameraPos = Vec3.ZERO;
+    private int frame;
+    private long budgetNanos;
+    private volatile boolean pending;
+
+    public void beginPass(long frameId, VisibilitySet previous, FrustumBatch frustum, Vec3 cameraPos,
+                          int budgetMicros) {
+        this.frame = (int) frameId;
+        this.previous = previous;
+        this.frustum = frustum;
+        this.cameraPos = cameraPos;
+        this.budgetNanos = Math.max(0, budgetMicros) * 1000L;
+        synchronized (this) {
+            queuedKeys.clear();
+            queuedOrder.clear();
+        }
+        if (budgetNanos == 0) {
+            pending = false;
+        }
+
+        if (frame % PRUNE_INTERVAL == 0) {
+            int now = frame;
+            lastTested.removeIf((key, tested) -> now - tested > PRUNE_AGE);
+        }
+    }
+
+    public boolean isActive() {
+        return budgetNanos > 0;
+    }
+
+    public boolean hasPending() {
+        return pending;
+    }
+
+    public int defer(long sectionKey) {
+        int x = SectionPos.x(sectionKey);
+        int y = SectionPos.y(sectionKey);
+        int z = SectionPos.z(sectionKey);
+        int tested = lastTested.get(sectionKey);
+        int age = tested == NEVER_TESTED ? MAX_STALE_FRAMES : Math.min(MAX_STALE_FRAMES, frame - tested);
+
+        float centerX = (float) ((x << 4) + 8 - cameraPos.x);
+        float centerY = (float) ((y << 4) + 8 - cameraPos.y);
+        float centerZ = (float) ((z << 4) + 8 - cameraPos.z);
+        float distanceSq = Math.max(SECTION_RADIUS_SQ, centerX * centerX + centerY * centerY + centerZ * centerZ);
+        float projected = SECTION_RADIUS_SQ / distanceSq;
+        float edge = 0.0f;
+        if (frustum != null) {
+            float distance = frustum.getEdgeDistance(centerX, centerY, centerZ) - SECTION_RADIUS;
+            edge = Math.max(0.0f, Math.min(1.0f, 1.0f - distance / EDGE_RANGE));
+        }
+        float priority = projected * (1.0f + edge) + STALE_WEIGHT * age / MAX_STALE_FRAMES;
+
+        synchronized (this) {
+            queuedOrder.add(((long) Float.floatToIntBits(priority) << 32) | queuedKeys.size());
+            queuedKeys.add(sectionKey);
+        }
+
+        int state = tested == NEVER_TESTED || previous == null ? VisibilitySet.UNKNOWN : previous.getSectionState(x, y, z);
+        return state == VisibilitySet.OCCLUDED || state == VisibilitySet.LIKELY_OCCLUDED ? state : VisibilitySet.VISIBLE;
+    }
+
+    public int prepareDrain() {
+        long[] order;
+        long[] keys;
+        synchronized (this) {
+            order = queuedOrder.toLongArray();
+            keys = queuedKeys.toLongArray();
+            queuedOrder.clear();
+            queuedKeys.clear();
+        }
+
+        Arrays.sort(order);
+        long[] sorted = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = keys[(int) order[order.length - 1 - i]];
+        }
+        drainKeys = sorted;
+        drainCursor.set(0);
+        drainTested.set(0);
+        drainStart = System.nanoTime();
+        drainDeadline = drainStart + budgetNanos;
+        return sorted.length;
+    }
+
+    public void drain(LongConsumer retest) {
+        long[] keys = drainKeys;
+        int index;
+        while ((index = drainCursor.getAndIncrement()) < keys.length) {
+            if (index > 0 && System.nanoTime() >= drainDeadline) {
+                break;
+            }
+            long sectionKey = keys[index];
+            try {
+                retest.accept(sectionKey);
+                lastTested.put(sectionKey, frame);
+            } catch (Exception e) {
+                IcedTeaMod.LOGGER.error("Error retesting section {}", SectionPos.of(sectionKey), e);
+            }
+            drainTested.incrementAndGet();
+        }
+    }
+
+    public void finishDrain() {
+        int queued = drainKeys.length;
+        int tested = drainTested.get();
+        pending = tested < queued;
+        drainKeys = EMPTY_KEYS;
+
+        if (IcedTeaMod.isDebugMode() && queued > 0) {
+            IcedTeaMod.LOGGER.info("[IcedTea][BUDGET] Retested {} of {} queued sections in {} us",
+                tested, queued, (System.nanoTime() - drainStart) / 1000);
+        }
+    }
+
+    public void onSectionChanged(long sectionKey) {
+        lastTested.remove(sectionKey);
+    }
+
+    public void invalidateIf(LongPredicate predicate) {
+        lastTested.removeIf((key, tested) -> predicate.test(key));
+    }
+
+    public void clear() {
+        lastTested.clear();
+        synchronized (this) {
+            queuedKeys.clear();
+            queuedOrder.clear();
+        }
+        previous = null;
+        frustum = null;
+        pending = false;
+    }
+}
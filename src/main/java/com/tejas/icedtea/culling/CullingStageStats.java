@@ -0,0 +1,65 @@
+package com.tejas.icedtea.culling;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class CullingStageStats {
+    public enum Stage {
+        CAVE, PORTAL, HORIZON, TILE_OCCLUDER, RENDER_CACHE, VISIBILITY_CACHE, UNDERGROUND, DISTANCE, HIZ, RAYCAST
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final LongAdder[] hits = new LongAdder[STAGES.length];
+    private final LongAdder[] misses = new LongAdder[STAGES.length];
+    private final LongAdder[] stale = new LongAdder[STAGES.length];
+
+    public CullingStageStats() {
+        for (int i = 0; i < STAGES.length; i++) {
+            hits[i] = new LongAdder();
+            misses[i] = new LongAdder();
+            stale[i] = new LongAdder();
+        }
+    }
+
+    public void recordHit(Stage stage) {
+        hits[stage.ordinal()].increment();
+    }
+
+    public void recordMiss(Stage stage) {
+        misses[stage.ordinal()].increment();
+    }
+
+    public void recordStale(Stage stage) {
+        stale[stage.ordinal()].increment();
+    }
+
+    public void record(Stage stage, boolean hit) {
+        (hit ? hits : misses)[stage.ordinal()].increment();
+    }
+
+    public long getHits(Stage stage) {
+        return hits[stage.ordinal()].sum();
+    }
+
+    public long getMisses(Stage stage) {
+        return misses[stage.ordinal()].sum();
+    }
+
+    public long getStale(Stage stage) {
+        return stale[stage.ordinal()].sum();
+    }
+
+    public double getHitRate(Stage stage) {
+        long hitCount = getHits(stage);
+        long total = hitCount + getMisses(stage) + getStale(stage);
+        return total > 0 ? hitCount * 100.0 / total : 0.0;
+    }
+
+    public void reset() {
+        for (int i = 0; i < STAGES.length; i++) {
+            hits[i].reset();
+            misses[i].reset();
+            stale[i].reset();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.tejas.icedtea.culling;
+
+import org.joml.Matrix4f;
+
+import java.util.Arrays;
+
+public class FrustumBatch {
+    private static final int PLANE_COUNT = 6;
+    private static final int SIDE_PLANE_COUNT = 4;
+
+    private final float[] planeX = new float[PLANE_COUNT];
+    private final float[] planeY = new float[PLANE_COUNT];
+    private final float[] planeZ = new float[PLANE_COUNT];
+    private final float[] planeW = new float[PLANE_COUNT];
+    private final float[] planeScale = new float[PLANE_COUNT];
+
+    public FrustumBatch(Matrix4f viewProjection) {
+        Matrix4f m = viewProjection;
+        setPlane(0, m.m03() + m.m00(), m.m13() + m.m10(), m.m23() + m.m20(), m.m33() + m.m30());
+        setPlane(1, m.m03() - m.m00(), m.m13() - m.m10(), m.m23() - m.m20(), m.m33() - m.m30());
+        setPlane(2, m.m03() + m.m01(), m.m13() + m.m11(), m.m23() + m.m21(), m.m33() + m.m31());
+        setPlane(3, m.m03() - m.m01(), m.m13() - m.m11(), m.m23() - m.m21(), m.m33() - m.m31());
+        setPlane(4, m.m03() + m.m02(), m.m13() + m.m12(), m.m23() + m.m22(), m.m33() + m.m32());
+        setPlane(5, m.m03() - m.m02(), m.m13() - m.m12(), m.m23() - m.m22(), m.m33() - m.m32());
+    }
+
+    public int test(Bounds bounds) {
+        int count = bounds.count;
+        float[] minX = bounds.minX, minY = bounds.minY, minZ = bounds.minZ;
+        float[] maxX = bounds.maxX, maxY = bounds.maxY, maxZ = bounds.maxZ;
+        boolean[] outside = bounds.outside;
+        Arrays.fill(outside, 0, count, false);
+
+        for (int plane = 0; plane < PLANE_COUNT; plane++) {
+            float a = planeX[plane];
+            float b = planeY[plane];
+            float c = planeZ[plane];
+            float d = planeW[plane];
+            for (int i = 0; i < count; i++) {
+                float distance = Math.max(a * minX[i], a * maxX[i])
+                    + Math.max(b * minY[i], b * maxY[i])
+                    + Math.max(c * minZ[i], c * maxZ[i])
+                    + d;
+                outside[i] |= distance < 0.0f;
+            }
+        }
+
+        long[] mask = bounds.mask;
+        Arrays.fill(mask, 0, (count + 63) >>> 6, 0L);
+        int inside = 0;
+        for (int i = 0; i < count; i++) {
+            if (!outside[i]) {
+                mask[i >>> 6] |= 1L << (i & 63);
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    public float getEdgeDistance(float x, float y, float z) {
+        float min = Float.MAX_VALUE;
+        for (int plane = 0; plane < SIDE_PLANE_COUNT; plane++) {
+            float distance = (planeX[plane] * x + planeY[plane] * y + planeZ[plane] * z + planeW[plane])
+                * planeScale[plane];
+            min = Math.min(min, distance);
+        }
+        return min;
+    }
+
+    private void setPlane(int plane, float x, float y, float z, float w) {
+        planeX[plane] = x;
+        planeY[plane] = y;
+        planeZ[plane] = z;
+        planeW[plane] = w;
+        float length = (float) Math.sqrt(x * x + y * y + z * z);
+        planeScale[plane] = length > 0.0f ? 1.0f / length : 0.0f;
+    }
+
+    public static class Bounds {
+        private float[] minX = new float[32], minY = new float[32], minZ = new float[32];
+        private float[] maxX = new float[32], maxY = new float[32], maxZ = new float[32];
+        private int[] sectionY = new int[32];
+        private boolean[] outside = new boolean[32];
+        private long[] mask = new long[1];
+        private int count;
+
+        public void clear() {
+            count = 0;
+        }
+
+        public void add(int section, float x0, float y0, float z0, float x1, float y1, float z1) {
+            if (count == sectionY.length) {
+                grow(count * 2);
+            }
+            sectionY[count] = section;
+            minX[count] = x0;
+            minY[count] = y0;
+            minZ[count] = z0;
+            maxX[count] = x1;
+            maxY[count] = y1;
+            maxZ[count] = z1;
+            count++;
+        }
+
+        public void markAllInside() {
+            Arrays.fill(mask, 0L);
+            for (int i = 0; i < count; i++) {
+                mask[i >>> 6] |= 1L << (i & 63);
+            }
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public int getSectionY(int index) {
+            return sectionY[index];
+        }
+
+        public boolean isInside(int index) {
+            return (mask[index >>> 6] & (1L << (index & 63))) != 0;
+        }
+
+        private void grow(int capacity) {
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            minZ = Arrays.copyOf(minZ, capacity);
+            maxX = Arrays.copyOf(maxX, capacity);
+            maxY = Arrays.copyOf(maxY, capacity);
+            maxZ = Arrays.copyOf(maxZ, capacity);
+            sectionY = Arrays.copyOf(sectionY, capacity);
+            outside = Arrays.copyOf(outside, capacity);
+            mask = Arrays.copyOf(mask, (capacity + 63) >>> 6);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.tejas.icedtea.culling;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.phys.Vec3;
+import org.joml.Matrix4f;
+
+import java.util.Arrays;
+
+public class HiZOcclusionBuffer {
+    public static final int WIDTH = 256;
+    public static final int HEIGHT = 128;
+
+    private static final float NEAR_W = 0.05f;
+    private static final int MAX_OCCLUDERS = 2048;
+    private static final int MAX_AGE_FRAMES = 4;
+    private static final double MAX_DRIFT_SQ = 4.0 * 4.0;
+    private static final double REPROJECTION_MARGIN = 0.5;
+    private static final int[][] BOX_TRIANGLES = {
+        {0, 1, 3}, {0, 3, 2},
+        {4, 6, 7}, {4, 7, 5},
+        {0, 4, 5}, {0, 5, 1},
+        {2, 3, 7}, {2, 7, 6},
+        {0, 2, 6}, {0, 6, 4},
+        {1, 5, 7}, {1, 7, 3}
+    };
+
+    private final int levels;
+    private final int[] levelWidth;
+    private final int[] levelHeight;
+    private final float[][] maxDepth;
+    private final float[] matrix = new float[16];
+
+    private final float[] cornerX = new float[8];
+    private final float[] cornerY = new float[8];
+    private final float[] cornerZ = new float[8];
+
+    private volatile boolean ready;
+    private long frameId = -1;
+    private double originX, originY, originZ;
+    private int occluderCount;
+
+    public HiZOcclusionBuffer() {
+        int count = 1;
+        while ((WIDTH >> count) >= 1 && (HEIGHT >> count) >= 1) {
+            count++;
+        }
+        this.levels = count;
+        this.levelWidth = new int[levels];
+        this.levelHeight = new int[levels];
+        this.maxDepth = new float[levels][];
+        for (int i = 0; i < levels; i++) {
+            levelWidth[i] = Math.max(1, WIDTH >> i);
+            levelHeight[i] = Math.max(1, HEIGHT >> i);
+            maxDepth[i] = new float[levelWidth[i] * levelHeight[i]];
+        }
+    }
+
+    public void rasterize(long frameId, Matrix4f viewProjection, Vec3 cameraPos,
+                          SectionOpacityStore opacityStore, int radius, int minSection, int maxSection) {
+        ready = false;
+        this.frameId = frameId;
+        this.originX = cameraPos.x;
+        this.originY = cameraPos.y;
+        this.originZ = cameraPos.z;
+        this.occluderCount = 0;
+        loadMatrix(viewProjection);
+
+        float[] depth = maxDepth[0];
+        Arrays.fill(depth, Float.POSITIVE_INFINITY);
+
+        int cameraX = SectionPos.blockToSectionCoord(cameraPos.x);
+        int cameraY = SectionPos.blockToSectionCoord(cameraPos.y);
+        int cameraZ = SectionPos.blockToSectionCoord(cameraPos.z);
+
+        for (int shell = 1; shell <= radius && occluderCount < MAX_OCCLUDERS; shell++) {
+            for (int dx = -shell; dx <= shell; dx++) {
+                for (int dy = -shell; dy <= shell; dy++) {
+                    for (int dz = -shell; dz <= shell; dz++) {
+                        if (Math.max(Math.abs(dx), Math.max(Math.abs(dy), Math.abs(dz))) != shell) continue;
+
+                        int sectionY = cameraY + dy;
+                        if (sectionY < minSection || sectionY >= maxSection) continue;
+
+                        long key = SectionPos.asLong(cameraX + dx, sectionY, cameraZ + dz);
+                        if (opacityStore.getSectionState(key) != SectionOpacityStore.FULL) continue;
+
+                        rasterizeBox(
+                            (cameraX + dx) << 4, sectionY << 4, (cameraZ + dz) << 4,
+                            ((cameraX + dx) << 4) + 16, (sectionY << 4) + 16, ((cameraZ + dz) << 4) + 16
+                        );
+                        if (++occluderCount >= MAX_OCCLUDERS) break;
+                    }
+                }
+            }
+        }
+
+        buildPyramid();
+        ready = true;
+    }
+
+    public boolean isUsable(long frameId, Vec3 cameraPos) {
+        return ready && frameId - this.frameId <= MAX_AGE_FRAMES && getDriftSq(cameraPos) <= MAX_DRIFT_SQ;
+    }
+
+    public int getOccluderCount() {
+        return occluderCount;
+    }
+
+    public boolean isOccluded(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                              Vec3 cameraPos) {
+        if (!ready) return false;
+
+        double margin = Math.sqrt(getDriftSq(cameraPos)) + REPROJECTION_MARGIN;
+        minX -= margin;
+        minY -= margin;
+        minZ -= margin;
+        maxX += margin;
+        maxY += margin;
+        maxZ += margin;
+
+        float screenMinX = Float.POSITIVE_INFINITY;
+        float screenMinY = Float.POSITIVE_INFINITY;
+        float screenMaxX = Float.NEGATIVE_INFINITY;
+        float screenMaxY = Float.NEGATIVE_INFINITY;
+        float nearest = Float.POSITIVE_INFINITY;
+
+        for (int i = 0; i < 8; i++) {
+            float x = (float) (((i & 1) == 0 ? minX : maxX) - originX);
+            float y = (float) (((i & 2) == 0 ? minY : maxY) - originY);
+            float z = (float) (((i & 4) == 0 ? minZ : maxZ) - originZ);
+
+            float w = matrix[3] * x + matrix[7] * y + matrix[11] * z + matrix[15];
+            if (w < NEAR_W) return false;
+
+            float inv = 1.0f / w;
+            float sx = ((matrix[0] * x + matrix[4] * y + matrix[8] * z + matrix[12]) * inv * 0.5f + 0.5f) * WIDTH;
+            float sy = ((matrix[1] * x + matrix[5] * y + matrix[9] * z + matrix[13]) * inv * 0.5f + 0.5f) * HEIGHT;
+            float sz = (matrix[2] * x + matrix[6] * y + matrix[10] * z + matrix[14]) * inv;
+
+            screenMinX = Math.min(screenMinX, sx);
+            screenMinY = Math.min(screenMinY, sy);
+            screenMaxX = Math.max(screenMaxX, sx);
+            screenMaxY = Math.max(screenMaxY, sy);
+            nearest = Math.min(nearest, sz);
+        }
+
+        if (screenMinX < 0 || screenMinY < 0 || screenMaxX >= WIDTH || screenMaxY >= HEIGHT) {
+            return false;
+        }
+
+        int x0 = Math.max(0, (int) Math.floor(screenMinX));
+        int y0 = Math.max(0, (int) Math.floor(screenMinY));
+        int x1 = Math.min(WIDTH - 1, (int) Math.ceil(screenMaxX));
+        int y1 = Math.min(HEIGHT - 1, (int) Math.ceil(screenMaxY));
+
+        int level = 0;
+        while (level < levels - 1 && ((x1 >> level) - (x0 >> level) > 3 || (y1 >> level) - (y0 >> level) > 3)) {
+            level++;
+        }
+
+        int width = levelWidth[level];
+        float[] max = maxDepth[level];
+        for (int ty = y0 >> level; ty <= y1 >> level; ty++) {
+            for (int tx = x0 >> level; tx <= x1 >> level; tx++) {
+                int index = ty * width + tx;
+                if (max[index] >= nearest) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private double getDriftSq(Vec3 cameraPos) {
+        double dx = cameraPos.x - originX;
+        double dy = cameraPos.y - originY;
+        double dz = cameraPos.z - originZ;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private void loadMatrix(Matrix4f m) {
+        matrix[0] = m.m00(); matrix[1] = m.m01(); matrix[2] = m.m02(); matrix[3] = m.m03();
+        matrix[4] = m.m10(); matrix[5] = m.m11(); matrix[6] = m.m12(); matrix[7] = m.m13();
+        matrix[8] = m.m20(); matrix[9] = m.m21(); matrix[10] = m.m22(); matrix[11] = m.m23();
+        matrix[12] = m.m30(); matrix[13] = m.m31(); matrix[14] = m.m32(); matrix[15] = m.m33();
+    }
+
+    private void rasterizeBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        for (int i = 0; i < 8; i++) {
+            float x = (float) (((i & 1) == 0 ? minX : maxX) - originX);
+            float y = (float) (((i & 2) == 0 ? minY : maxY) - originY);
+            float z = (float) (((i & 4) == 0 ? minZ : maxZ) - originZ);
+
+            float w = matrix[3] * x + matrix[7] * y + matrix[11] * z + matrix[15];
+            if (w < NEAR_W) return;
+
+            float inv = 1.0f / w;
+            cornerX[i] = ((matrix[0] * x + matrix[4] * y + matrix[8] * z + matrix[12]) * inv * 0.5f + 0.5f) * WIDTH;
+            cornerY[i] = ((matrix[1] * x + matrix[5] * y + matrix[9] * z + matrix[13]) * inv * 0.5f + 0.5f) * HEIGHT;
+            cornerZ[i] = (matrix[2] * x + matrix[6] * y + matrix[10] * z + matrix[14]) * inv;
+        }
+
+        for (int[] triangle : BOX_TRIANGLES) {
+            rasterizeTriangle(triangle[0], triangle[1], triangle[2]);
+        }
+    }
+
+    private void rasterizeTriangle(int a, int b, int c) {
+        float ax = cornerX[a], ay = cornerY[a], az = cornerZ[a];
+        float bx = cornerX[b], by = cornerY[b], bz = cornerZ[b];
+        float cx = cornerX[c], cy = cornerY[c], cz = cornerZ[c];
+
+        float area = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+        if (Math.abs(area) < 1e-6f) return;
+        float invArea = 1.0f / area;
+
+        int x0 = Math.max(0, (int) Math.floor(Math.min(ax, Math.min(bx, cx))));
+        int y0 = Math.max(0, (int) Math.floor(Math.min(ay, Math.min(by, cy))));
+        int x1 = Math.min(WIDTH - 1, (int) Math.ceil(Math.max(ax, Math.max(bx, cx))));
+        int y1 = Math.min(HEIGHT - 1, (int) Math.ceil(Math.max(ay, Math.max(by, cy))));
+        if (x0 > x1 || y0 > y1) return;
+
+        float[] depth = maxDepth[0];
+        for (int py = y0; py <= y1; py++) {
+            float sampleY = py + 0.5f;
+            for (int px = x0; px <= x1; px++) {
+                float sampleX = px + 0.5f;
+
+                float w0 = ((bx - sampleX) * (cy - sampleY) - (by - sampleY) * (cx - sampleX)) * invArea;
+                float w1 = ((cx - sampleX) * (ay - sampleY) - (cy - sampleY) * (ax - sampleX)) * invArea;
+                float w2 = 1.0f - w0 - w1;
+                if (w0 < 0 || w1 < 0 || w2 < 0) continue;
+
+                float z = w0 * az + w1 * bz + w2 * cz;
+                int index = py * WIDTH + px;
+                if (z < depth[index]) {
+                    depth[index] = z;
+                }
+            }
+        }
+    }
+
+    private void buildPyramid() {
+        for (int level = 1; level < levels; level++) {
+            int width = levelWidth[level];
+            int height = levelHeight[level];
+            int parentWidth = levelWidth[level - 1];
+            int parentHeight = levelHeight[level - 1];
+            float[] parentMax = maxDepth[level - 1];
+            float[] max = maxDepth[level];
+
+            for (int y = 0; y < height; y++) {
+                int py0 = Math.min(y * 2, parentHeight - 1);
+                int py1 = Math.min(y * 2 + 1, parentHeight - 1);
+                for (int x = 0; x < width; x++) {
+                    int px0 = Math.min(x * 2, parentWidth - 1);
+                    int px1 = Math.min(x * 2 + 1, parentWidth - 1);
+
+                    int i00 = py0 * parentWidth + px0;
+                    int i01 = py0 * parentWidth + px1;
+                    int i10 = py1 * parentWidth + px0;
+                    int i11 = py1 * parentWidth + px1;
+
+                    max[y * width + x] = Math.max(Math.max(parentMax[i00], parentMax[i01]),
+                        Math.max(parentMax[i10], parentMax[i11]));
+                }
+            }
+        }
+    }
+}
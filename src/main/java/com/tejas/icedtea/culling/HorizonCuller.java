@@ -0,0 +1,415 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Arrays;
+
+public class HorizonCuller {
+    private static final int BIN_COUNT = 1024;
+    private static final float BIN_WIDTH = 4.0f / BIN_COUNT;
+    private static final int MAX_LEVEL = 3;
+    private static final int FIRST_BAND = 8;
+    private static final int MAX_SURFACE_DESCENT = 48;
+    private static final int VERIFIED_DEPTH = 16;
+    private static final int UNKNOWN_HEIGHT = Integer.MIN_VALUE;
+    private static final int[] REGION_SHIFTS = { RegionCuller.TILE_SHIFT, RegionCuller.MID_SHIFT, RegionCuller.TOP_SHIFT };
+
+    private final SectionDataTracker sectionTracker;
+    private final ConcurrentLongIntMap occluderHeights = new ConcurrentLongIntMap(4096, UNKNOWN_HEIGHT);
+    private final float[] horizon = new float[BIN_COUNT];
+    private volatile Result published;
+
+    public HorizonCuller(SectionDataTracker sectionTracker) {
+        this.sectionTracker = sectionTracker;
+    }
+
+    public void update(Level level, Vec3 cameraPos, int radius) {
+        published = null;
+        int cameraChunkX = SectionPos.blockToSectionCoord(cameraPos.x);
+        int cameraChunkZ = SectionPos.blockToSectionCoord(cameraPos.z);
+        int minY = level.getMinSection() << 4;
+        Result result = new Result(cameraChunkX, cameraChunkZ, radius);
+
+        if (!level.hasChunk(cameraChunkX, cameraChunkZ)
+            || cameraPos.y < level.getChunk(cameraChunkX, cameraChunkZ).getHeight(
+                Heightmap.Types.WORLD_SURFACE, (int) Math.floor(cameraPos.x) & 15, (int) Math.floor(cameraPos.z) & 15)) {
+            published = result;
+            return;
+        }
+
+        int[][] pyramid = buildPyramid(level, cameraChunkX, cameraChunkZ, radius, minY);
+        Occluders occluders = new Occluders();
+        int minCellX = (cameraChunkX - radius) >> MAX_LEVEL;
+        int minCellZ = (cameraChunkZ - radius) >> MAX_LEVEL;
+        int maxCellX = (cameraChunkX + radius) >> MAX_LEVEL;
+        int maxCellZ = (cameraChunkZ + radius) >> MAX_LEVEL;
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                collectOccluders(occluders, pyramid, MAX_LEVEL, cellX, cellZ, cameraPos, cameraChunkX, cameraChunkZ, radius, minY);
+            }
+        }
+
+        int width = radius * 2 + 1;
+        long[] columnOrder = new long[width * width];
+        float[] columnNear = new float[width * width];
+        float[] columnFar = new float[width * width];
+        for (int i = 0; i < columnOrder.length; i++) {
+            int chunkX = cameraChunkX - radius + i / width;
+            int chunkZ = cameraChunkZ - radius + i % width;
+            columnNear[i] = (float) nearestDistance(cameraPos, chunkX << 4, chunkZ << 4, 16);
+            columnFar[i] = (float) farthestDistance(cameraPos, chunkX << 4, chunkZ << 4, 16);
+            columnOrder[i] = ((long) Float.floatToIntBits(columnNear[i]) << 32) | i;
+        }
+        Arrays.sort(columnOrder);
+        occluders.sort();
+
+        Arrays.fill(horizon, Float.NEGATIVE_INFINITY);
+        float[] span = new float[2];
+        int next = 0;
+        for (long entry : columnOrder) {
+            int i = (int) entry;
+            float near = columnNear[i];
+            while (next < occluders.count && occluders.far[occluders.order(next)] <= near) {
+                int occluder = occluders.order(next++);
+                raiseHorizon(occluders.low[occluder], occluders.high[occluder], occluders.slope[occluder]);
+            }
+            if (near < 16.0f) continue;
+
+            int chunkX = cameraChunkX - radius + i / width;
+            int chunkZ = cameraChunkZ - radius + i % width;
+            angularSpan(cameraPos, chunkX << 4, chunkZ << 4, 16, span);
+
+            float lowest = Float.POSITIVE_INFINITY;
+            for (int bin = (int) Math.floor(span[0] / BIN_WIDTH); bin <= (int) Math.floor(span[1] / BIN_WIDTH); bin++) {
+                lowest = Math.min(lowest, horizon[Math.floorMod(bin, BIN_COUNT)]);
+            }
+            if (lowest == Float.NEGATIVE_INFINITY) continue;
+
+            result.thresholds[i] = (float) (cameraPos.y + lowest * (lowest <= 0 ? columnFar[i] : near));
+        }
+
+        result.buildRegionMins();
+        published = result;
+    }
+
+    public boolean isSectionHidden(int chunkX, int sectionY, int chunkZ) {
+        Result result = published;
+        return result != null && ((sectionY + 1) << 4) < result.getThreshold(chunkX, chunkZ);
+    }
+
+    public boolean isRegionHidden(int shift, int regionX, int regionZ, int topSectionY) {
+        Result result = published;
+        return result != null && ((topSectionY + 1) << 4) < result.getRegionThreshold(shift, regionX, regionZ);
+    }
+
+    public void onSectionChanged(long sectionKey) {
+        occluderHeights.remove(ChunkPos.asLong(SectionPos.x(sectionKey), SectionPos.z(sectionKey)));
+    }
+
+    public void onChunkUnload(int chunkX, int chunkZ) {
+        occluderHeights.remove(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    public void clear() {
+        occluderHeights.clear();
+        published = null;
+    }
+
+    private int[][] buildPyramid(Level level, int cameraChunkX, int cameraChunkZ, int radius, int minY) {
+        int[][] pyramid = new int[MAX_LEVEL + 1][];
+        for (int mip = 0; mip <= MAX_LEVEL; mip++) {
+            int base = (cameraChunkX - radius) >> mip;
+            int size = ((cameraChunkX + radius) >> mip) - base + 1;
+            int baseZ = (cameraChunkZ - radius) >> mip;
+            int sizeZ = ((cameraChunkZ + radius) >> mip) - baseZ + 1;
+            int[] heights = new int[size * sizeZ];
+
+            for (int x = 0; x < size; x++) {
+                for (int z = 0; z < sizeZ; z++) {
+                    int cellX = base + x;
+                    int cellZ = baseZ + z;
+                    if (mip == 0) {
+                        heights[x * sizeZ + z] = getOccluderHeight(level, cellX, cellZ, minY);
+                        continue;
+                    }
+
+                    int lowest = Integer.MAX_VALUE;
+                    for (int child = 0; child < 4; child++) {
+                        lowest = Math.min(lowest, getHeight(pyramid, mip - 1,
+                            cellX * 2 + (child >> 1), cellZ * 2 + (child & 1), cameraChunkX, cameraChunkZ, radius, minY));
+                    }
+                    heights[x * sizeZ + z] = lowest;
+                }
+            }
+            pyramid[mip] = heights;
+        }
+        return pyramid;
+    }
+
+    private static int getHeight(int[][] pyramid, int mip, int cellX, int cellZ,
+                                 int cameraChunkX, int cameraChunkZ, int radius, int minY) {
+        int base = (cameraChunkX - radius) >> mip;
+        int baseZ = (cameraChunkZ - radius) >> mip;
+        int size = ((cameraChunkX + radius) >> mip) - base + 1;
+        int sizeZ = ((cameraChunkZ + radius) >> mip) - baseZ + 1;
+        int x = cellX - base;
+        int z = cellZ - baseZ;
+        if (x < 0 || z < 0 || x >= size || z >= sizeZ) {
+            return minY;
+        }
+        return pyramid[mip][x * sizeZ + z];
+    }
+
+    private void collectOccluders(Occluders occluders, int[][] pyramid, int mip, int cellX, int cellZ, Vec3 cameraPos,
+                                  int cameraChunkX, int cameraChunkZ, int radius, int minY) {
+        int chunkX = cellX << mip;
+        int chunkZ = cellZ << mip;
+        int chunks = 1 << mip;
+        if (chunkX > cameraChunkX + radius || chunkX + chunks <= cameraChunkX - radius
+            || chunkZ > cameraChunkZ + radius || chunkZ + chunks <= cameraChunkZ - radius) {
+            return;
+        }
+
+        int chunkDistance = Math.max(
+            Math.max(0, Math.max(chunkX - cameraChunkX, cameraChunkX - (chunkX + chunks - 1))),
+            Math.max(0, Math.max(chunkZ - cameraChunkZ, cameraChunkZ - (chunkZ + chunks - 1)))
+        );
+        if (mip > 0 && chunkDistance < (FIRST_BAND << (mip - 1))) {
+            for (int child = 0; child < 4; child++) {
+                collectOccluders(occluders, pyramid, mip - 1, cellX * 2 + (child >> 1), cellZ * 2 + (child & 1),
+                    cameraPos, cameraChunkX, cameraChunkZ, radius, minY);
+            }
+            return;
+        }
+
+        int height = getHeight(pyramid, mip, cellX, cellZ, cameraChunkX, cameraChunkZ, radius, minY);
+        if (height <= minY) return;
+
+        int size = chunks << 4;
+        double near = nearestDistance(cameraPos, chunkX << 4, chunkZ << 4, size);
+        if (near < 1.0) return;
+        double far = farthestDistance(cameraPos, chunkX << 4, chunkZ << 4, size);
+
+        float[] span = new float[2];
+        angularSpan(cameraPos, chunkX << 4, chunkZ << 4, size, span);
+        double rise = height - cameraPos.y;
+        occluders.add(span[0], span[1], (float) far, (float) (rise / (rise > 0 ? far : near)));
+    }
+
+    private void raiseHorizon(float low, float high, float slope) {
+        int first = (int) Math.ceil(low / BIN_WIDTH);
+        int last = (int) Math.floor(high / BIN_WIDTH) - 1;
+        for (int bin = first; bin <= last; bin++) {
+            int index = Math.floorMod(bin, BIN_COUNT);
+            if (slope > horizon[index]) {
+                horizon[index] = slope;
+            }
+        }
+    }
+
+    private int getOccluderHeight(Level level, int chunkX, int chunkZ, int minY) {
+        if (!level.hasChunk(chunkX, chunkZ)) {
+            return minY;
+        }
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        int cached = occluderHeights.get(key);
+        if (cached != UNKNOWN_HEIGHT) {
+            return cached;
+        }
+
+        LevelChunk chunk = level.getChunk(chunkX, chunkZ);
+        SectionOpacityStore opacityStore = sectionTracker.getOpacityStore();
+        int lowest = Integer.MAX_VALUE;
+        long sectionKey = Long.MIN_VALUE;
+        int sectionState = SectionOpacityStore.MISSING;
+        long[] mask = new long[SectionOpacityStore.WORDS_PER_SECTION];
+
+        for (int x = 0; x < 16 && lowest > minY; x++) {
+            for (int z = 0; z < 16 && lowest > minY; z++) {
+                int y = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, x, z);
+                int surface = minY;
+                int runTop = UNKNOWN_HEIGHT;
+                for (int step = 0; step < MAX_SURFACE_DESCENT && y >= minY; step++, y--) {
+                    long blockSection = SectionPos.asLong(chunkX, y >> 4, chunkZ);
+                    if (blockSection != sectionKey) {
+                        sectionKey = blockSection;
+                        sectionState = opacityStore.copyMask(blockSection, mask);
+                    }
+                    if (sectionState == SectionOpacityStore.MISSING) {
+                        return minY;
+                    }
+                    boolean opaque = sectionState == SectionOpacityStore.FULL
+                        || (sectionState >= 0 && SectionOpacityStore.isOpaque(mask, x, y & 15, z));
+                    if (!opaque) {
+                        runTop = UNKNOWN_HEIGHT;
+                        continue;
+                    }
+                    if (runTop == UNKNOWN_HEIGHT) {
+                        runTop = y;
+                    }
+                    if (runTop - y + 1 >= VERIFIED_DEPTH || y == minY) {
+                        surface = runTop + 1;
+                        break;
+                    }
+                }
+                lowest = Math.min(lowest, surface);
+            }
+        }
+
+        occluderHeights.put(key, lowest);
+        return lowest;
+    }
+
+    static double nearestDistance(Vec3 cameraPos, int minX, int minZ, int size) {
+        double dx = Math.max(0.0, Math.max(minX - cameraPos.x, cameraPos.x - (minX + size)));
+        double dz = Math.max(0.0, Math.max(minZ - cameraPos.z, cameraPos.z - (minZ + size)));
+        return Math.sqrt(dx * dx + dz * dz);
+    }
+
+    static double farthestDistance(Vec3 cameraPos, int minX, int minZ, int size) {
+        double dx = Math.max(Math.abs(minX - cameraPos.x), Math.abs(minX + size - cameraPos.x));
+        double dz = Math.max(Math.abs(minZ - cameraPos.z), Math.abs(minZ + size - cameraPos.z));
+        return Math.sqrt(dx * dx + dz * dz);
+    }
+
+    static void angularSpan(Vec3 cameraPos, int minX, int minZ, int size, float[] span) {
+        double centerX = minX + size * 0.5 - cameraPos.x;
+        double centerZ = minZ + size * 0.5 - cameraPos.z;
+        float center = pseudoAngle(centerX, centerZ);
+        float low = 0.0f;
+        float high = 0.0f;
+        for (int corner = 0; corner < 4; corner++) {
+            double x = ((corner & 1) == 0 ? minX : minX + size) - cameraPos.x;
+            double z = ((corner & 2) == 0 ? minZ : minZ + size) - cameraPos.z;
+            float relative = pseudoAngle(x, z) - center;
+            if (relative > 2.0f) relative -= 4.0f;
+            if (relative <= -2.0f) relative += 4.0f;
+            low = Math.min(low, relative);
+            high = Math.max(high, relative);
+        }
+        span[0] = center + low;
+        span[1] = center + high;
+    }
+
+    private static float pseudoAngle(double x, double z) {
+        if (z >= 0) {
+            return (float) (x >= 0 ? z / (x + z) : 1 - x / (-x + z));
+        }
+        return (float) (x < 0 ? 2 - z / (-x - z) : 3 + x / (x - z));
+    }
+
+    private static final class Occluders {
+        float[] low = new float[256];
+        float[] high = new float[256];
+        float[] far = new float[256];
+        float[] slope = new float[256];
+        long[] sorted;
+        int count;
+
+        void add(float spanLow, float spanHigh, float distance, float rise) {
+            if (count == low.length) {
+                low = Arrays.copyOf(low, count * 2);
+                high = Arrays.copyOf(high, count * 2);
+                far = Arrays.copyOf(far, count * 2);
+                slope = Arrays.copyOf(slope, count * 2);
+            }
+            low[count] = spanLow;
+            high[count] = spanHigh;
+            far[count] = distance;
+            slope[count] = rise;
+            count++;
+        }
+
+        void sort() {
+            sorted = new long[count];
+            for (int i = 0; i < count; i++) {
+                sorted[i] = ((long) Float.floatToIntBits(far[i]) << 32) | i;
+            }
+            Arrays.sort(sorted);
+        }
+
+        int order(int index) {
+            return (int) sorted[index];
+        }
+    }
+
+    private static final class Result {
+        final int originX;
+        final int originZ;
+        final int radius;
+        final int width;
+        final float[] thresholds;
+        float[][] regionMins;
+        int[] regionMinX;
+        int[] regionMinZ;
+        int[] regionWidth;
+
+        Result(int originX, int originZ, int radius) {
+            this.originX = originX;
+            this.originZ = originZ;
+            this.radius = radius;
+            this.width = radius * 2 + 1;
+            this.thresholds = new float[width * width];
+            Arrays.fill(thresholds, Float.NEGATIVE_INFINITY);
+        }
+
+        float getThreshold(int chunkX, int chunkZ) {
+            int dx = chunkX - originX;
+            int dz = chunkZ - originZ;
+            if (Math.abs(dx) > radius || Math.abs(dz) > radius) {
+                return Float.NEGATIVE_INFINITY;
+            }
+            return thresholds[(dx + radius) * width + (dz + radius)];
+        }
+
+        void buildRegionMins() {
+            regionMins = new float[REGION_SHIFTS.length][];
+            regionMinX = new int[REGION_SHIFTS.length];
+            regionMinZ = new int[REGION_SHIFTS.length];
+            regionWidth = new int[REGION_SHIFTS.length];
+            for (int level = 0; level < REGION_SHIFTS.length; level++) {
+                int shift = REGION_SHIFTS[level];
+                int minX = (originX - radius) >> shift;
+                int minZ = (originZ - radius) >> shift;
+                int regions = ((originX + radius) >> shift) - minX + 1;
+                int regionsZ = ((originZ + radius) >> shift) - minZ + 1;
+                float[] mins = new float[regions * regionsZ];
+                Arrays.fill(mins, Float.POSITIVE_INFINITY);
+                for (int i = 0; i < thresholds.length; i++) {
+                    int regionX = ((originX - radius + i / width) >> shift) - minX;
+                    int regionZ = ((originZ - radius + i % width) >> shift) - minZ;
+                    int index = regionX * regionsZ + regionZ;
+                    mins[index] = Math.min(mins[index], thresholds[i]);
+                }
+                regionMins[level] = mins;
+                regionMinX[level] = minX;
+                regionMinZ[level] = minZ;
+                regionWidth[level] = regionsZ;
+            }
+        }
+
+        float getRegionThreshold(int shift, int regionX, int regionZ) {
+            if (regionMins == null) {
+                return Float.NEGATIVE_INFINITY;
+            }
+            for (int level = 0; level < REGION_SHIFTS.length; level++) {
+                if (REGION_SHIFTS[level] != shift) continue;
+
+                int x = regionX - regionMinX[level];
+                int z = regionZ - regionMinZ[level];
+                float[] mins = regionMins[level];
+                if (x < 0 || z < 0 || z >= regionWidth[level] || x * regionWidth[level] + z >= mins.length) {
+                    return Float.NEGATIVE_INFINITY;
+                }
+                return mins[x * regionWidth[level] + z];
+            }
+            return Float.NEGATIVE_INFINITY;
+        }
+    }
+}
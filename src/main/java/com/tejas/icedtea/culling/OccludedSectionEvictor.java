@@ -0,0 +1,184 @@
+package com.tejas.icedtea.culling;
+
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.tejas.icedtea.IcedTeaMod;
+import com.tejas.icedtea.mixin.RenderChunkAccessor;
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import net.minecraft.client.renderer.chunk.RenderRegionCache;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Map;
+import java.util.function.Function;
+
+public class OccludedSectionEvictor {
+    private static final int NOT_OCCLUDED = -1;
+    private static final int SCAN_INTERVAL_FRAMES = 20;
+    private static final int MAX_EVICTIONS_PER_SCAN = 32;
+    private static final int MAX_PREFETCHES_PER_FRAME = 8;
+    private static final int PREFETCH_DISTANCE = 3;
+
+    private final ConcurrentLongIntMap occludedSince = new ConcurrentLongIntMap(4096, NOT_OCCLUDED);
+    private final LongOpenHashSet evicted = new LongOpenHashSet();
+    private final LongArrayList candidates = new LongArrayList();
+    private int frame;
+
+    public static int currentSeconds() {
+        return (int) (System.nanoTime() / 1_000_000_000L);
+    }
+
+    public void onSectionState(long sectionKey, int state, int seconds) {
+        int since = occludedSince.get(sectionKey);
+        if (state == VisibilitySet.OCCLUDED) {
+            if (since == NOT_OCCLUDED) {
+                occludedSince.put(sectionKey, seconds);
+            }
+        } else if (since != NOT_OCCLUDED) {
+            occludedSince.remove(sectionKey);
+        }
+    }
+
+    public void tick(OcclusionCullingSystem cullingSystem,
+                     Function<BlockPos, ChunkRenderDispatcher.RenderChunk> lookup,
+                     ChunkRenderDispatcher dispatcher, Vec3 cameraPos, int evictionSeconds) {
+        if (!evicted.isEmpty()) {
+            prefetch(cullingSystem, lookup, dispatcher, cameraPos);
+        }
+
+        if (evictionSeconds <= 0 || ++frame % SCAN_INTERVAL_FRAMES != 0) {
+            return;
+        }
+
+        int now = currentSeconds();
+        candidates.clear();
+        occludedSince.forEach((sectionKey, since) -> {
+            if (now - since >= evictionSeconds && candidates.size() < MAX_EVICTIONS_PER_SCAN
+                && !evicted.contains(sectionKey)) {
+                candidates.add(sectionKey);
+            }
+        });
+
+        int released = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            long sectionKey = candidates.getLong(i);
+            int x = SectionPos.x(sectionKey);
+            int y = SectionPos.y(sectionKey);
+            int z = SectionPos.z(sectionKey);
+            ChunkRenderDispatcher.RenderChunk chunk = find(lookup, x, y, z);
+            if (chunk == null || cullingSystem.getSectionState(x, y, z) != VisibilitySet.OCCLUDED) {
+                occludedSince.remove(sectionKey);
+                continue;
+            }
+
+            ChunkRenderDispatcher.CompiledChunk compiled = chunk.compiled.get();
+            if (chunk.isDirty() || compiled == ChunkRenderDispatcher.CompiledChunk.UNCOMPILED
+                || compiled.hasNoRenderableLayers()) {
+                occludedSince.remove(sectionKey);
+                continue;
+            }
+
+            release(chunk);
+            evicted.add(sectionKey);
+            released++;
+        }
+
+        if (IcedTeaMod.isDebugMode() && released > 0) {
+            IcedTeaMod.LOGGER.info("[IcedTea][EVICT] Released buffers of {} long-occluded sections ({} evicted)",
+                released, evicted.size());
+        }
+    }
+
+    public boolean isEvicted(long sectionKey) {
+        return evicted.contains(sectionKey);
+    }
+
+    public int getEvictedCount() {
+        return evicted.size();
+    }
+
+    public void clear() {
+        occludedSince.clear();
+        evicted.clear();
+        candidates.clear();
+    }
+
+    private void prefetch(OcclusionCullingSystem cullingSystem,
+                          Function<BlockPos, ChunkRenderDispatcher.RenderChunk> lookup,
+                          ChunkRenderDispatcher dispatcher, Vec3 cameraPos) {
+        int cameraX = SectionPos.blockToSectionCoord(cameraPos.x);
+        int cameraY = SectionPos.blockToSectionCoord(cameraPos.y);
+        int cameraZ = SectionPos.blockToSectionCoord(cameraPos.z);
+
+        RenderRegionCache regionCache = null;
+        int rebuilt = 0;
+        LongIterator iterator = evicted.iterator();
+        while (iterator.hasNext() && rebuilt < MAX_PREFETCHES_PER_FRAME) {
+            long sectionKey = iterator.nextLong();
+            int x = SectionPos.x(sectionKey);
+            int y = SectionPos.y(sectionKey);
+            int z = SectionPos.z(sectionKey);
+
+            boolean near = Math.abs(x - cameraX) <= PREFETCH_DISTANCE
+                && Math.abs(y - cameraY) <= PREFETCH_DISTANCE
+                && Math.abs(z - cameraZ) <= PREFETCH_DISTANCE;
+            if (!near && cullingSystem.getSectionState(x, y, z) == VisibilitySet.OCCLUDED
+                && !hasVisibleNeighbor(cullingSystem, x, y, z)) {
+                continue;
+            }
+
+            iterator.remove();
+            occludedSince.remove(sectionKey);
+            ChunkRenderDispatcher.RenderChunk chunk = find(lookup, x, y, z);
+            if (chunk == null) {
+                continue;
+            }
+
+            if (regionCache == null) {
+                regionCache = new RenderRegionCache();
+            }
+            try {
+                chunk.rebuildChunkAsync(dispatcher, regionCache);
+                chunk.setNotDirty();
+            } catch (Exception e) {
+                IcedTeaMod.LOGGER.error("Error prefetching evicted section", e);
+            }
+            rebuilt++;
+        }
+    }
+
+    private static boolean hasVisibleNeighbor(OcclusionCullingSystem cullingSystem, int x, int y, int z) {
+        for (int face = 0; face < SectionConnectivity.FACE_COUNT; face++) {
+            int state = cullingSystem.getSectionState(
+                x + SectionConnectivity.STEP_X[face],
+                y + SectionConnectivity.STEP_Y[face],
+                z + SectionConnectivity.STEP_Z[face]
+            );
+            if (state == VisibilitySet.VISIBLE || state == VisibilitySet.LIKELY_OCCLUDED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ChunkRenderDispatcher.RenderChunk find(Function<BlockPos, ChunkRenderDispatcher.RenderChunk> lookup,
+                                                          int x, int y, int z) {
+        BlockPos origin = new BlockPos(x << 4, y << 4, z << 4);
+        ChunkRenderDispatcher.RenderChunk chunk = lookup.apply(origin);
+        return chunk != null && origin.equals(chunk.getOrigin()) ? chunk : null;
+    }
+
+    private static void release(ChunkRenderDispatcher.RenderChunk chunk) {
+        RenderChunkAccessor accessor = (RenderChunkAccessor) chunk;
+        accessor.invokeReset();
+        for (Map.Entry<RenderType, VertexBuffer> entry : accessor.getBuffers().entrySet()) {
+            entry.getValue().close();
+            entry.setValue(new VertexBuffer(VertexBuffer.Usage.STATIC));
+        }
+    }
+}
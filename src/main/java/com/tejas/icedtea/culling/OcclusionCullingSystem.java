@@ -5,51 +5,123 @@ import com.tejas.icedtea.client.IcedTeaHudOverlay;
 import com.tejas.icedtea.config.IcedTeaConfig;
 import com.tejas.icedtea.optimization.BiomeAwareOptimizer;
 import com.tejas.icedtea.optimization.LowDensityOptimizer;
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
 import com.tejas.icedtea.util.ThreadPoolManager;
 import net.minecraft.client.Camera;
 import net.minecraft.client.Minecraft;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.LightLayer;
+import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
-import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
 
 public class OcclusionCullingSystem {
     private final IcedTeaConfig config;
     private final ChunkVisibilityCache visibilityCache;
     private final RaycastEngine raycastEngine;
-    private final ConcurrentHashMap<ChunkPos, Boolean> visibleChunks;
+    private final VisibilitySet[] visibilitySets;
+    private final AtomicReference<VisibilitySet> publishedVisibility;
+    private final AtomicBoolean cullJobRunning = new AtomicBoolean(false);
+    private final ConcurrentLongIntMap occlusionVerdicts;
     private final RenderCacheSystem renderCache;
+    private final SectionCompileScheduler compileScheduler;
+    private final TranslucentResortScheduler resortScheduler;
+    private final OccludedSectionEvictor sectionEvictor;
+    private final CullingStageStats stageStats;
     private final BiomeAwareOptimizer biomeOptimizer;
     private final LowDensityOptimizer densityOptimizer;
+    private final SectionDataTracker sectionTracker;
+    private final CaveFloodFill caveFloodFill;
+    private final PortalVisibility portalVisibility;
+    private final HorizonCuller horizonCuller;
+    private final TileOccluderMap tileOccluders;
+    private final RegionCuller regionCuller;
+    private final SectionExposure sectionExposure;
+    private final RayPairCache rayPairCache;
+    private final SectionInvalidator sectionInvalidator;
+    private final CullingBudgetScheduler budgetScheduler;
+    private final HiZOcclusionBuffer[] depthBuffers;
+    private final AtomicBoolean depthRasterizing = new AtomicBoolean(false);
+    private volatile HiZOcclusionBuffer latestDepthBuffer;
+    private long frameCounter = 0;
+    private long renderFrame = 0;
     
-    private final AtomicInteger totalChunks = new AtomicInteger(0);
-    private final AtomicInteger culledChunks = new AtomicInteger(0);
+    private boolean hasPreviousPass = false;
+    private Vec3 lastCameraPos = Vec3.ZERO;
+    private Vec3 lastFullPassPos = Vec3.ZERO;
+    private float lastXRot;
+    private float lastYRot;
+    private long lastCameraSectionKey;
+    private int lastRenderDistance;
+    private int lastConnectivityVersion;
+    private int lastPortalVersion;
+    private int lastCameraExposure = SectionExposure.UNKNOWN;
+    private volatile int cameraExposure = SectionExposure.UNKNOWN;
+    private volatile int passSeconds = -1;
+    private Level lastLevel;
     
-    private final ConcurrentHashMap<ChunkPos, Integer> chunkHeightMap;
     
-    private long lastCullDuration = 5_000_000;
+    private volatile long lastCullDuration = 5_000_000;
     private static final long TARGET_CULL_TIME_NS = 8_000_000;
+    private static final int DEPTH_OCCLUDER_RADIUS = 4;
+    private static final double UNDERGROUND_MIN_DISTANCE = 32.0;
+    private static final int UNTESTED = -1;
+    private static final int TILE_SIZE = 1 << RegionCuller.TILE_SHIFT;
+    private static final int[][] RAY_SAMPLE_OFFSETS = {
+        {8, 8, 8}, {3, 3, 3}, {13, 13, 3}, {13, 3, 13}, {3, 13, 13}
+    };
+    private static final double FULL_PASS_DISTANCE_SQ = 8.0 * 8.0;
+    private static final double MOVE_EPSILON_SQ = 1.0E-6;
+    private static final float TURN_EPSILON = 0.05f;
     
     public OcclusionCullingSystem(IcedTeaConfig config) {
         this.config = config;
         this.visibilityCache = new ChunkVisibilityCache(config.getOcclusionCacheSize());
-        this.raycastEngine = new RaycastEngine();
-        this.visibleChunks = new ConcurrentHashMap<>();
-        this.chunkHeightMap = new ConcurrentHashMap<>();
-        this.renderCache = new RenderCacheSystem();
+        this.sectionTracker = new SectionDataTracker();
+        this.raycastEngine = new RaycastEngine(sectionTracker.getOpacityStore());
+        this.caveFloodFill = new CaveFloodFill(sectionTracker);
+        this.portalVisibility = new PortalVisibility(sectionTracker);
+        this.horizonCuller = new HorizonCuller(sectionTracker);
+        this.tileOccluders = new TileOccluderMap(sectionTracker.getOpacityStore());
+        this.regionCuller = new RegionCuller(sectionTracker.getOpacityStore());
+        this.sectionExposure = new SectionExposure(sectionTracker);
+        this.rayPairCache = new RayPairCache();
+        this.sectionInvalidator = new SectionInvalidator();
+        this.budgetScheduler = new CullingBudgetScheduler();
+        this.sectionTracker.setChangeListener(sectionKey -> {
+            sectionInvalidator.onSectionChanged(sectionKey);
+            portalVisibility.onSectionChanged(sectionKey);
+            horizonCuller.onSectionChanged(sectionKey);
+            regionCuller.onSectionChanged(sectionKey);
+            budgetScheduler.onSectionChanged(sectionKey);
+            sectionExposure.invalidate(sectionKey);
+        });
+        this.depthBuffers = new HiZOcclusionBuffer[] { new HiZOcclusionBuffer(), new HiZOcclusionBuffer() };
+        this.visibilitySets = new VisibilitySet[] { new VisibilitySet(), new VisibilitySet() };
+        this.publishedVisibility = new AtomicReference<>(visibilitySets[0]);
+        this.occlusionVerdicts = new ConcurrentLongIntMap(16384, UNTESTED);
+        this.stageStats = new CullingStageStats();
+        this.renderCache = new RenderCacheSystem(stageStats);
+        IcedTeaHudOverlay.setStageStats(stageStats);
+        this.compileScheduler = new SectionCompileScheduler();
+        this.resortScheduler = new TranslucentResortScheduler();
+        this.sectionEvictor = new OccludedSectionEvictor();
         this.biomeOptimizer = new BiomeAwareOptimizer();
         this.densityOptimizer = new LowDensityOptimizer();
     }
     
-    public void cullChunks(Camera camera, FrustumIntersection frustum, int renderDistance) {
+    public void cullChunks(Camera camera, Matrix4f viewProjection, int renderDistance) {
+        renderFrame++;
         if (!config.isOcclusionCullingEnabled() || !IcedTeaMod.isModEnabled()) {
             return;
         }
@@ -58,338 +130,767 @@ public class OcclusionCullingSystem {
         Level level = mc.level;
         if (level == null) return;
         
-        densityOptimizer.analyzeArea(mc);
+        if (cullJobRunning.get()) {
+            return;
+        }
         
         Vec3 cameraPos = camera.getPosition();
         ChunkPos cameraChunkPos = new ChunkPos(
             BlockPos.containing(cameraPos.x, cameraPos.y, cameraPos.z)
         );
         
-        visibleChunks.clear();
-        totalChunks.set(0);
-        culledChunks.set(0);
+        long cameraSectionKey = sectionKeyOf(cameraPos);
+        sectionTracker.setTrackingWindow(cameraSectionKey, renderDistance);
         
-        if (totalChunks.get() % 100 == 0) {
-            visibilityCache.cleanExpired();
+        if (config.isCaveCullingEnabled()) {
+            caveFloodFill.requestUpdate(
+                cameraSectionKey, renderDistance, level.getMinSection(), level.getMaxSection()
+            );
         }
         
-        List<ChunkPos> chunksToTest = new ArrayList<>();
-        for (int x = -renderDistance; x <= renderDistance; x++) {
-            for (int z = -renderDistance; z <= renderDistance; z++) {
-                ChunkPos chunkPos = new ChunkPos(
-                    cameraChunkPos.x + x,
-                    cameraChunkPos.z + z
-                );
-                
-                if (chunkPos.getChessboardDistance(cameraChunkPos) <= renderDistance) {
-                    chunksToTest.add(chunkPos);
-                    totalChunks.incrementAndGet();
-                }
+        if (config.isPortalDetection()) {
+            portalVisibility.requestUpdate(
+                cameraPos, renderDistance, level.getMinSection(), level.getMaxSection()
+            );
+        }
+        
+        int connectivityVersion = sectionTracker.getConnectivityVersion();
+        int portalVersion = portalVisibility.getVersion();
+        int exposure = config.isUndergroundCullingEnabled()
+            ? classifyCamera(level, cameraPos, cameraSectionKey)
+            : SectionExposure.UNKNOWN;
+        boolean moved = cameraPos.distanceToSqr(lastCameraPos) > MOVE_EPSILON_SQ;
+        boolean turned = Math.abs(camera.getXRot() - lastXRot) > TURN_EPSILON
+            || Math.abs(wrapDegrees(camera.getYRot() - lastYRot)) > TURN_EPSILON;
+        
+        boolean fullPass = !config.isIncrementalCullingEnabled()
+            || !hasPreviousPass
+            || level != lastLevel
+            || cameraSectionKey != lastCameraSectionKey
+            || renderDistance != lastRenderDistance
+            || connectivityVersion != lastConnectivityVersion
+            || portalVersion != lastPortalVersion
+            || exposure != lastCameraExposure
+            || cameraPos.distanceToSqr(lastFullPassPos) > FULL_PASS_DISTANCE_SQ;
+        
+        if (!fullPass && !moved && !turned && !sectionInvalidator.hasPendingChanges()
+            && !budgetScheduler.hasPending()) {
+            return;
+        }
+        
+        hasPreviousPass = true;
+        lastLevel = level;
+        lastCameraPos = cameraPos;
+        lastXRot = camera.getXRot();
+        lastYRot = camera.getYRot();
+        lastCameraSectionKey = cameraSectionKey;
+        lastRenderDistance = renderDistance;
+        lastConnectivityVersion = connectivityVersion;
+        lastPortalVersion = portalVersion;
+        lastCameraExposure = exposure;
+        cameraExposure = exposure;
+        if (fullPass) {
+            lastFullPassPos = cameraPos;
+        }
+        boolean retestBoundaries = !fullPass && moved;
+        
+        long frameId = ++frameCounter;
+        renderCache.beginFrame(frameId, renderDistance, level.getMaxSection() - level.getMinSection());
+        passSeconds = config.getOccludedEvictionSeconds() > 0 && config.isTerrainCullingEnabled()
+            ? OccludedSectionEvictor.currentSeconds()
+            : -1;
+        HiZOcclusionBuffer depthBuffer = null;
+        if (config.isHiZCullingEnabled()) {
+            HiZOcclusionBuffer latest = latestDepthBuffer;
+            if (latest != null && latest.isUsable(frameId, cameraPos)) {
+                depthBuffer = latest;
+            }
+            if (depthRasterizing.compareAndSet(false, true)) {
+                HiZOcclusionBuffer target = latest == depthBuffers[0] ? depthBuffers[1] : depthBuffers[0];
+                int minSection = level.getMinSection();
+                int maxSection = level.getMaxSection();
+                ThreadPoolManager.execute(() -> {
+                    try {
+                        target.rasterize(frameId, viewProjection, cameraPos, sectionTracker.getOpacityStore(),
+                            DEPTH_OCCLUDER_RADIUS, minSection, maxSection);
+                        latestDepthBuffer = target;
+                    } catch (Exception e) {
+                        IcedTeaMod.LOGGER.error("Error rasterizing occlusion depth buffer", e);
+                    } finally {
+                        depthRasterizing.set(false);
+                    }
+                });
+            }
+        }
+        HiZOcclusionBuffer frameDepthBuffer = depthBuffer;
+        
+        if (fullPass) {
+            occlusionVerdicts.clear();
+        }
+        if (sectionInvalidator.beginPass(cameraSectionKey)) {
+            if (sectionInvalidator.isInvalidateAll()) {
+                rayPairCache.clear();
+                visibilityCache.clear();
+                renderCache.clear();
+                occlusionVerdicts.clear();
+                budgetScheduler.clear();
+            } else {
+                rayPairCache.removeIf(sectionInvalidator::isAffected);
+                visibilityCache.removeIf(sectionInvalidator::isAffected);
+                renderCache.invalidateIf(sectionInvalidator::isAffected);
+                occlusionVerdicts.removeIf((key, verdict) -> sectionInvalidator.isAffected(key));
+                budgetScheduler.invalidateIf(sectionInvalidator::isAffected);
             }
         }
         
-        ExecutorService executor = ThreadPoolManager.getExecutor();
-        int threadCount = config.getThreadCount();
-        int chunkCount = chunksToTest.size();
-        int chunksPerThread = Math.max(1, chunkCount / threadCount);
+        VisibilitySet front = publishedVisibility.get();
+        VisibilitySet back = front == visibilitySets[0] ? visibilitySets[1] : visibilitySets[0];
+        back.reset(frameId, renderFrame, cameraSectionKey, cameraPos, cameraChunkPos.x, cameraChunkPos.z, renderDistance,
+            level.getMinSection(), level.getMaxSection());
         
-        CountDownLatch latch = new CountDownLatch(threadCount);
+        FrustumBatch frustum = new FrustumBatch(viewProjection);
+        budgetScheduler.beginPass(frameId, front, config.isEnhancedFrustumCulling() ? frustum : null,
+            cameraPos, config.getCullingBudgetMicros());
+        ForkJoinPool pool = ThreadPoolManager.getCullingPool();
+        AtomicInteger nextTile = new AtomicInteger(0);
+        CountDownLatch completion = new CountDownLatch(1);
         
         long timeoutMs = Math.max(3, Math.min(16, lastCullDuration / 1_000_000));
         
         long startTime = System.nanoTime();
+        tileOccluders.reset(cameraPos);
+        sectionExposure.beginPass(cameraSectionKey);
+        cullJobRunning.set(true);
+        Runnable abortPass = () -> {
+            cullJobRunning.set(false);
+            completion.countDown();
+        };
         
-        for (int i = 0; i < threadCount; i++) {
-            int startIdx = i * chunksPerThread;
-            int endIdx = (i == threadCount - 1) ? chunkCount : (i + 1) * chunksPerThread;
-            
-            if (startIdx >= chunkCount) {
-                latch.countDown();
-                continue;
-            }
-            
-            List<ChunkPos> batch = chunksToTest.subList(startIdx, Math.min(endIdx, chunkCount));
-            
-            executor.submit(() -> {
-                try {
-                    for (ChunkPos chunkPos : batch) {
-                        boolean visible = testChunkVisibility(
-                            chunkPos, cameraPos, level, frustum, camera
-                        );
-                        visibleChunks.put(chunkPos, visible);
-                        if (!visible) {
-                            culledChunks.incrementAndGet();
+        Runnable launchWorkers = () -> {
+            try {
+                int[] tileOrder = collectTiles(back, frustum, cameraPos, cameraChunkPos, renderDistance, level);
+                int tileCount = tileOrder.length / 2;
+                int workerCount = Math.max(1, Math.min(pool.getParallelism(), tileCount));
+                AtomicInteger remainingWorkers = new AtomicInteger(workerCount);
+                Runnable worker = () -> {
+                    try {
+                        FrustumBatch.Bounds bounds = new FrustumBatch.Bounds();
+                        SectionExposure.Walk walk = new SectionExposure.Walk();
+                        int tile;
+                        while ((tile = nextTile.getAndIncrement()) < tileCount) {
+                            int tileX = tileOrder[tile * 2];
+                            int tileZ = tileOrder[tile * 2 + 1];
+                            for (int x = tileX; x < tileX + TILE_SIZE; x++) {
+                                for (int z = tileZ; z < tileZ + TILE_SIZE; z++) {
+                                    if (Math.abs(x - cameraChunkPos.x) > renderDistance
+                                        || Math.abs(z - cameraChunkPos.z) > renderDistance) {
+                                        continue;
+                                    }
+                                    testColumnVisibility(
+                                        back, new ChunkPos(x, z), cameraPos, level, frustum, bounds, walk,
+                                        frameDepthBuffer, frameId, retestBoundaries
+                                    );
+                                    tileOccluders.addColumn(x, z, level.getMinSection(), level.getMaxSection());
+                                }
+                            }
+                        }
+                    } catch (Exception e) {
+                        IcedTeaMod.LOGGER.error("Error in chunk culling thread", e);
+                    } finally {
+                        if (remainingWorkers.decrementAndGet() == 0) {
+                            retestDeferredSections(pool, workerCount, back, cameraPos, level, frameDepthBuffer,
+                                frameId, () -> {
+                                    publishVisibility(back, startTime);
+                                    completion.countDown();
+                                });
                         }
                     }
-                } catch (Exception e) {
-                    IcedTeaMod.LOGGER.error("Error in chunk culling thread", e);
-                } finally {
-                    latch.countDown();
+                };
+                for (int i = 0; i < workerCount; i++) {
+                    try {
+                        pool.execute(worker);
+                    } catch (Exception e) {
+                        IcedTeaMod.LOGGER.error("Error launching chunk culling workers", e);
+                        if (remainingWorkers.addAndGet(i - workerCount) == 0) {
+                            abortPass.run();
+                        }
+                        return;
+                    }
                 }
-            });
-        }
+            } catch (Exception e) {
+                IcedTeaMod.LOGGER.error("Error preparing chunk culling pass", e);
+                abortPass.run();
+            }
+        };
         
         try {
-            latch.await(timeoutMs, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            if (config.isHorizonCullingEnabled()) {
+                pool.execute(() -> {
+                    try {
+                        horizonCuller.update(level, cameraPos, renderDistance);
+                    } catch (Exception e) {
+                        IcedTeaMod.LOGGER.error("Error updating terrain horizon", e);
+                    } finally {
+                        launchWorkers.run();
+                    }
+                });
+            } else {
+                launchWorkers.run();
+            }
+        } catch (Exception e) {
+            IcedTeaMod.LOGGER.error("Error starting chunk culling pass", e);
+            abortPass.run();
         }
         
+        if (!config.isPipelinedCullingEnabled()) {
+            try {
+                completion.await(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void retestDeferredSections(ForkJoinPool pool, int workerCount, VisibilitySet visibility,
+                                        Vec3 cameraPos, Level level, HiZOcclusionBuffer depthBuffer,
+                                        long frameId, Runnable onComplete) {
+        int queued = budgetScheduler.isActive() ? budgetScheduler.prepareDrain() : 0;
+        if (queued == 0) {
+            budgetScheduler.finishDrain();
+            onComplete.run();
+            return;
+        }
+
+        int seconds = passSeconds;
+        Function<SectionExposure.Walk, LongConsumer> retester = walk -> sectionKey -> {
+            ChunkPos chunkPos = new ChunkPos(SectionPos.x(sectionKey), SectionPos.z(sectionKey));
+            int sectionY = SectionPos.y(sectionKey);
+            int state = testSectionOcclusion(
+                sectionKey, chunkPos, cameraPos, level,
+                biomeOptimizer.getOptimizationProfile(chunkPos, level),
+                densityOptimizer.getSettings(chunkPos), depthBuffer, frameId, walk
+            );
+            occlusionVerdicts.put(sectionKey, state);
+
+            boolean culled = VisibilitySet.isCulled(state);
+            int previous = visibility.getSectionState(chunkPos.x, sectionY, chunkPos.z);
+            visibility.putSection(chunkPos.x, sectionY, chunkPos.z, state);
+            if (VisibilitySet.isCulled(previous) != culled) {
+                visibility.addCounts(0, culled ? 1 : -1);
+            }
+            if (!culled) {
+                visibility.putColumn(chunkPos.x, chunkPos.z, true);
+            }
+            if (seconds >= 0) {
+                sectionEvictor.onSectionState(sectionKey, state, seconds);
+            }
+        };
+
+        int drainers = Math.max(1, Math.min(workerCount, queued));
+        AtomicInteger remainingDrainers = new AtomicInteger(drainers);
+        Runnable drainer = () -> {
+            try {
+                budgetScheduler.drain(retester.apply(new SectionExposure.Walk()));
+            } catch (Exception e) {
+                IcedTeaMod.LOGGER.error("Error retesting deferred sections", e);
+            } finally {
+                if (remainingDrainers.decrementAndGet() == 0) {
+                    budgetScheduler.finishDrain();
+                    onComplete.run();
+                }
+            }
+        };
+        for (int i = 0; i < drainers; i++) {
+            try {
+                pool.execute(drainer);
+            } catch (Exception e) {
+                IcedTeaMod.LOGGER.error("Error launching deferred section retests", e);
+                if (remainingDrainers.addAndGet(i - drainers) == 0) {
+                    budgetScheduler.finishDrain();
+                    onComplete.run();
+                }
+                return;
+            }
+        }
+    }
+    
+    private int[] collectTiles(VisibilitySet visibility, FrustumBatch frustum, Vec3 cameraPos,
+                               ChunkPos cameraChunkPos, int renderDistance, Level level) {
+        try {
+            return regionCuller.collectTiles(
+                visibility, config.isEnhancedFrustumCulling() ? frustum : null,
+                config.isHorizonCullingEnabled() ? horizonCuller : null,
+                config.isCaveCullingEnabled() ? caveFloodFill : null,
+                config.isPortalDetection() ? portalVisibility : null,
+                cameraPos, cameraChunkPos.x, cameraChunkPos.z, renderDistance,
+                level.getMinSection(), level.getMaxSection()
+            );
+        } catch (Exception e) {
+            IcedTeaMod.LOGGER.error("Error collecting culling regions", e);
+            return new int[0];
+        }
+    }
+    
+    private void publishVisibility(VisibilitySet visibility, long startTime) {
+        publishedVisibility.set(visibility);
         lastCullDuration = System.nanoTime() - startTime;
+        cullJobRunning.set(false);
         
         IcedTeaHudOverlay.updateChunkStats(
-            totalChunks.get(), 
-            totalChunks.get() - culledChunks.get()
+            visibility.getTotalSections(), 
+            visibility.getTotalSections() - visibility.getCulledSections()
+        );
+        IcedTeaHudOverlay.updateCacheStats(
+            visibilityCache.getHitCount(),
+            visibilityCache.getMissCount(),
+            visibilityCache.getEvictionCount()
         );
     }
     
-private boolean testChunkVisibility(ChunkPos chunkPos, Vec3 cameraPos, 
-                                    Level level, FrustumIntersection frustum, Camera camera) {
+private void testColumnVisibility(VisibilitySet visibility, ChunkPos chunkPos, Vec3 cameraPos, Level level,
+                                  FrustumBatch frustum, FrustumBatch.Bounds bounds, SectionExposure.Walk walk,
+                                  HiZOcclusionBuffer depthBuffer, long frameId, boolean retestBoundaries) {
+    SectionOpacityStore opacityStore = sectionTracker.getOpacityStore();
+    long cameraSectionKey = sectionKeyOf(cameraPos);
 
-    ChunkPos cameraChunkPos = new ChunkPos(
-        BlockPos.containing(cameraPos.x, cameraPos.y, cameraPos.z)
-    );
-    if (chunkPos.equals(cameraChunkPos)) {
-        if (IcedTeaMod.isDebugMode()) {
-            IcedTeaMod.LOGGER.info("[IcedTea][CULL] {}: Camera chunk, always visible", chunkPos);
+    BiomeAwareOptimizer.OptimizationProfile profile = 
+        biomeOptimizer.getOptimizationProfile(chunkPos, level);
+
+    LowDensityOptimizer.OptimizationSettings densitySettings =
+        densityOptimizer.getSettings(chunkPos);
+
+    float minX = (float) (chunkPos.getMinBlockX() - cameraPos.x);
+    float minZ = (float) (chunkPos.getMinBlockZ() - cameraPos.z);
+    bounds.clear();
+    for (int sectionY = level.getMinSection(); sectionY < level.getMaxSection(); sectionY++) {
+        long sectionKey = SectionPos.asLong(chunkPos.x, sectionY, chunkPos.z);
+        if (opacityStore.getSectionState(sectionKey) == SectionOpacityStore.EMPTY) {
+            continue;
         }
-        cacheResult(chunkPos, true, 0);
-        return true;
+        float minY = (float) ((sectionY << 4) - cameraPos.y);
+        bounds.add(sectionY, minX, minY, minZ, minX + 16, minY + 16, minZ + 16);
     }
 
-    if (renderCache.hasValidCache(chunkPos)) {
+    if (config.isEnhancedFrustumCulling()) {
+        frustum.test(bounds);
+    } else {
+        bounds.markAllInside();
+    }
+
+    int tested = bounds.size();
+    int culled = 0;
+    int seconds = passSeconds;
+
+    for (int i = 0; i < tested; i++) {
+        int sectionY = bounds.getSectionY(i);
+        long sectionKey = SectionPos.asLong(chunkPos.x, sectionY, chunkPos.z);
+
+        int state = testSectionVisibility(
+            sectionKey, cameraSectionKey, chunkPos, cameraPos, level, bounds.isInside(i),
+            profile, densitySettings, depthBuffer, frameId, retestBoundaries, walk
+        );
+        visibility.putSection(chunkPos.x, sectionY, chunkPos.z, state);
+        if (seconds >= 0) {
+            sectionEvictor.onSectionState(sectionKey, state, seconds);
+        }
+        if (VisibilitySet.isCulled(state)) {
+            culled++;
+        }
+    }
+
+    visibility.putColumn(chunkPos.x, chunkPos.z, tested == 0 || culled < tested);
+    visibility.addCounts(tested, culled);
+}
+
+private int testSectionVisibility(long sectionKey, long cameraSectionKey, ChunkPos chunkPos, Vec3 cameraPos,
+                                      Level level, boolean inFrustum,
+                                      BiomeAwareOptimizer.OptimizationProfile profile,
+                                      LowDensityOptimizer.OptimizationSettings densitySettings,
+                                      HiZOcclusionBuffer depthBuffer, long frameId,
+                                      boolean retestBoundaries, SectionExposure.Walk walk) {
+
+    if (sectionKey == cameraSectionKey) {
         if (IcedTeaMod.isDebugMode()) {
-            IcedTeaMod.LOGGER.info("[IcedTea][CACHE] {}: Using render cache: {}", chunkPos, renderCache.shouldRenderCached(chunkPos));
+            IcedTeaMod.LOGGER.info("[IcedTea][CULL] {}: Camera section, always visible", SectionPos.of(sectionKey));
         }
-        return renderCache.shouldRenderCached(chunkPos);
+        cacheResult(sectionKey, true, frameId);
+        return VisibilitySet.VISIBLE;
     }
 
-    OcclusionData cachedData = visibilityCache.get(chunkPos);
-    if (cachedData != null && !cachedData.isExpired()) {
+    if (!inFrustum) {
         if (IcedTeaMod.isDebugMode()) {
-            IcedTeaMod.LOGGER.info("[IcedTea][CACHE] {}: Using visibility cache: {}", chunkPos, cachedData.isVisible());
+            IcedTeaMod.LOGGER.info("[IcedTea][FRUSTUM] {}: Outside frustum, culled", SectionPos.of(sectionKey));
         }
-        return cachedData.isVisible();
+        return VisibilitySet.OUT_OF_FRUSTUM;
     }
 
-    Vec3 chunkCenter = getChunkCenter(chunkPos);
-    double distance = cameraPos.distanceTo(chunkCenter);
+    int verdict = occlusionVerdicts.get(sectionKey);
+    if (verdict != UNTESTED && !(retestBoundaries && isOcclusionBoundary(sectionKey, verdict))) {
+        return verdict;
+    }
 
-    BiomeAwareOptimizer.OptimizationProfile profile = 
-        biomeOptimizer.getOptimizationProfile(chunkPos, level);
+    int state = testSectionShortcuts(sectionKey, cameraSectionKey, chunkPos, cameraPos);
+    if (state == UNTESTED) {
+        if (budgetScheduler.isActive()) {
+            return budgetScheduler.defer(sectionKey);
+        }
+        state = testSectionOcclusion(
+            sectionKey, chunkPos, cameraPos, level, profile, densitySettings, depthBuffer, frameId, walk
+        );
+    }
+    occlusionVerdicts.put(sectionKey, state);
+    return state;
+}
 
-    LowDensityOptimizer.OptimizationSettings densitySettings =
-        densityOptimizer.getSettings(chunkPos);
+private int testSectionShortcuts(long sectionKey, long cameraSectionKey, ChunkPos chunkPos, Vec3 cameraPos) {
+    int sectionY = SectionPos.y(sectionKey);
 
-    if (config.isEnhancedFrustumCulling()) {
-        double chunkRadius = 128.5;
+    if (config.isCaveCullingEnabled()) {
+        boolean hidden = caveFloodFill.isSectionHidden(chunkPos.x, sectionY, chunkPos.z, cameraSectionKey);
+        stageStats.record(CullingStageStats.Stage.CAVE, hidden);
+        if (hidden) {
+            if (IcedTeaMod.isDebugMode()) {
+                IcedTeaMod.LOGGER.info("[IcedTea][CAVE] {}: Not reachable from camera section, culled", SectionPos.of(sectionKey));
+            }
+            return VisibilitySet.OCCLUDED;
+        }
+    }
 
-        if (!frustum.testSphere(
-            (float) chunkCenter.x, 
-            (float) chunkCenter.y, 
-            (float) chunkCenter.z, 
-            (float) chunkRadius)) {
+    if (config.isPortalDetection()) {
+        boolean hidden = portalVisibility.isSectionHidden(
+            chunkPos.x, sectionY, chunkPos.z, PortalVisibility.viewerKeyOf(cameraPos));
+        stageStats.record(CullingStageStats.Stage.PORTAL, hidden);
+        if (hidden) {
             if (IcedTeaMod.isDebugMode()) {
-                IcedTeaMod.LOGGER.info("[IcedTea][FRUSTUM] {}: Outside frustum, culled", chunkPos);
+                IcedTeaMod.LOGGER.info("[IcedTea][PORTAL] {}: Not visible through any opening of the camera cell, culled", SectionPos.of(sectionKey));
             }
-            cacheResult(chunkPos, false, distance);
-            return false;
+            return VisibilitySet.OCCLUDED;
         }
     }
 
-    if (config.isUndergroundCullingEnabled()) {
-        if (isUndergroundChunkCulled(chunkPos, cameraPos, level)) {
+    if (config.isHorizonCullingEnabled()) {
+        boolean hidden = horizonCuller.isSectionHidden(chunkPos.x, sectionY, chunkPos.z);
+        stageStats.record(CullingStageStats.Stage.HORIZON, hidden);
+        if (hidden) {
             if (IcedTeaMod.isDebugMode()) {
-                IcedTeaMod.LOGGER.info("[IcedTea][UNDERGROUND] {}: Underground culling, culled", chunkPos);
+                IcedTeaMod.LOGGER.info("[IcedTea][HORIZON] {}: Below terrain horizon, culled", SectionPos.of(sectionKey));
             }
-            cacheResult(chunkPos, false, distance);
-            return false;
+            return VisibilitySet.OCCLUDED;
         }
     }
 
-    if (distance > profile.cullingDistance) {
+    boolean behindNearTiles = tileOccluders.isSectionHidden(chunkPos.x, sectionY, chunkPos.z);
+    stageStats.record(CullingStageStats.Stage.TILE_OCCLUDER, behindNearTiles);
+    if (behindNearTiles) {
         if (IcedTeaMod.isDebugMode()) {
-            IcedTeaMod.LOGGER.info("[IcedTea][DISTANCE] {}: Beyond biome culling distance ({:.1f} > {:.1f}), culled", chunkPos, distance, profile.cullingDistance);
+            IcedTeaMod.LOGGER.info("[IcedTea][TILE] {}: Behind solid sections of nearer tiles, culled", SectionPos.of(sectionKey));
         }
-        cacheResult(chunkPos, false, distance);
-        return false;
+        return VisibilitySet.OCCLUDED;
     }
 
-    if (!densitySettings.skipDetailedChecks && shouldPerformRaycastTest(chunkPos, cameraPos)) {
+    int cachedRender = renderCache.lookup(sectionKey);
+    if (cachedRender != RenderCacheSystem.UNKNOWN) {
+        if (IcedTeaMod.isDebugMode()) {
+            IcedTeaMod.LOGGER.info("[IcedTea][CACHE] {}: Using render cache: {}", SectionPos.of(sectionKey), cachedRender == RenderCacheSystem.RENDERED);
+        }
+        return cachedRender == RenderCacheSystem.RENDERED ? VisibilitySet.VISIBLE : VisibilitySet.OCCLUDED;
+    }
+
+    OcclusionData cachedData = visibilityCache.get(sectionKey);
+    stageStats.record(CullingStageStats.Stage.VISIBILITY_CACHE, cachedData != null);
+    if (cachedData != null) {
+        if (IcedTeaMod.isDebugMode()) {
+            IcedTeaMod.LOGGER.info("[IcedTea][CACHE] {}: Using visibility cache: {}", SectionPos.of(sectionKey), cachedData.isVisible());
+        }
+        return cachedData.isVisible() ? VisibilitySet.VISIBLE : VisibilitySet.OCCLUDED;
+    }
+    return UNTESTED;
+}
+
+private int testSectionOcclusion(long sectionKey, ChunkPos chunkPos, Vec3 cameraPos, Level level,
+                                     BiomeAwareOptimizer.OptimizationProfile profile,
+                                     LowDensityOptimizer.OptimizationSettings densitySettings,
+                                     HiZOcclusionBuffer depthBuffer, long frameId, SectionExposure.Walk walk) {
+
+    int sectionY = SectionPos.y(sectionKey);
+    double minX = chunkPos.getMinBlockX();
+    double minY = sectionY << 4;
+    double minZ = chunkPos.getMinBlockZ();
+
+    Vec3 sectionCenter = new Vec3(minX + 8, minY + 8, minZ + 8);
+    double distance = cameraPos.distanceTo(sectionCenter);
+
+    if (config.isUndergroundCullingEnabled() && distance > UNDERGROUND_MIN_DISTANCE) {
+        int exposure = cameraExposure;
+        boolean hidden = exposure == SectionExposure.SURFACE
+            ? sectionExposure.isEnclosedBy(level, sectionKey, SectionExposure.BURIED)
+                && !sectionExposure.isReachableFromExposed(level, sectionKey, sectionKeyOf(cameraPos), walk)
+            : exposure == SectionExposure.BURIED
+                && sectionExposure.getExposure(level, sectionKey) == SectionExposure.SURFACE;
+        stageStats.record(CullingStageStats.Stage.UNDERGROUND, hidden);
+        if (hidden) {
+            if (IcedTeaMod.isDebugMode()) {
+                IcedTeaMod.LOGGER.info("[IcedTea][UNDERGROUND] {}: Opposite side of the surface (air {}, sky columns {}), culled",
+                    SectionPos.of(sectionKey), sectionExposure.getAirCount(level, sectionKey),
+                    sectionExposure.getSkyColumns(level, sectionKey));
+            }
+            return VisibilitySet.LIKELY_OCCLUDED;
+        }
+    }
+
+    boolean beyondDistance = distance > profile.cullingDistance;
+    stageStats.record(CullingStageStats.Stage.DISTANCE, beyondDistance);
+    if (beyondDistance) {
+        if (IcedTeaMod.isDebugMode()) {
+            IcedTeaMod.LOGGER.info("[IcedTea][DISTANCE] {}: Beyond biome culling distance ({:.1f} > {:.1f}), culled", SectionPos.of(sectionKey), distance, profile.cullingDistance);
+        }
+        return VisibilitySet.LIKELY_OCCLUDED;
+    }
+
+    boolean depthOccluded = depthBuffer != null
+        && depthBuffer.isOccluded(minX, minY, minZ, minX + 16, minY + 16, minZ + 16, cameraPos);
+    if (depthBuffer != null) {
+        stageStats.record(CullingStageStats.Stage.HIZ, depthOccluded);
+    }
+    if (depthOccluded) {
+        if (IcedTeaMod.isDebugMode()) {
+            IcedTeaMod.LOGGER.info("[IcedTea][HIZ] {}: Behind depth buffer occluders, culled", SectionPos.of(sectionKey));
+        }
+        cacheResult(sectionKey, false, frameId);
+        return VisibilitySet.OCCLUDED;
+    }
+
+    if (!densitySettings.skipDetailedChecks && shouldPerformRaycastTest(distance)) {
         float aggressiveness = Math.max(
             config.getOcclusionAggressiveness(),
             profile.aggressiveness
         );
 
-        boolean occluded = raycastEngine.isChunkOccluded(
-            cameraPos, 
-            chunkCenter, 
-            level,
-            aggressiveness
-        );
+        boolean occluded;
+        int cachedRay = rayPairCache.get(sectionKey);
+        if (cachedRay != RayPairCache.UNKNOWN) {
+            occluded = cachedRay == RayPairCache.OCCLUDED;
+        } else {
+            occluded = isSectionRayOccluded(cameraPos, minX, minY, minZ, level, aggressiveness);
+            rayPairCache.put(sectionKey, occluded);
+        }
+        stageStats.record(CullingStageStats.Stage.RAYCAST, occluded);
 
         if (IcedTeaMod.isDebugMode()) {
-            IcedTeaMod.LOGGER.info("[IcedTea][RAYCAST] {}: Raycast test (aggr {:.2f}) result: {}", chunkPos, aggressiveness, occluded ? "CULLED" : "VISIBLE");
+            IcedTeaMod.LOGGER.info("[IcedTea][RAYCAST] {}: Raycast test (aggr {:.2f}) result: {}", SectionPos.of(sectionKey), aggressiveness, occluded ? "CULLED" : "VISIBLE");
         }
 
         if (occluded) {
-            cacheResult(chunkPos, false, distance);
-            return false;
+            return VisibilitySet.LIKELY_OCCLUDED;
         }
     } else if (IcedTeaMod.isDebugMode()) {
-        IcedTeaMod.LOGGER.info("[IcedTea][DENSITY/LOD] {}: Skipped detailed checks (density/LOD)", chunkPos);
+        IcedTeaMod.LOGGER.info("[IcedTea][DENSITY/LOD] {}: Skipped detailed checks (density/LOD)", SectionPos.of(sectionKey));
     }
 
     if (IcedTeaMod.isDebugMode()) {
-        IcedTeaMod.LOGGER.info("[IcedTea][VISIBLE] {}: Passed all checks, visible", chunkPos);
+        IcedTeaMod.LOGGER.info("[IcedTea][VISIBLE] {}: Passed all checks, visible", SectionPos.of(sectionKey));
     }
-    cacheResult(chunkPos, true, distance);
-    return true;
+    cacheResult(sectionKey, true, frameId);
+    return VisibilitySet.VISIBLE;
     }
 
-    private void cacheResult(ChunkPos pos, boolean visible, double distance) {
-        visibilityCache.put(pos, new OcclusionData(visible));
-        renderCache.cacheChunkRender(pos, visible, distance);
+    private void cacheResult(long sectionKey, boolean visible, long frameId) {
+        visibilityCache.put(sectionKey, new OcclusionData(visible, frameId));
+        renderCache.cacheChunkRender(sectionKey, visible);
     }
 
-    private boolean isUndergroundChunkCulled(ChunkPos chunkPos, Vec3 cameraPos, Level level) {
-        if (cameraPos.y < 63) return false;
-        
-        Integer cachedHeight = chunkHeightMap.get(chunkPos);
-        int avgChunkY;
-        
-        if (cachedHeight != null) {
-            avgChunkY = cachedHeight;
-        } else {
-            avgChunkY = calculateChunkAverageHeight(chunkPos, level);
-            chunkHeightMap.put(chunkPos, avgChunkY);
-        }
-        
-        if (cameraPos.y - avgChunkY < 32) return false;
-        
-        if (hasVerticalOpening(chunkPos, cameraPos, level)) {
-            return false;
-        }
-        
-        LevelChunk chunk = level.getChunk(chunkPos.x, chunkPos.z);
-        if (chunk == null) return false;
-        
-        int samples = 0;
-        int solidAbove = 0;
-        
-        for (int x = 0; x < 16; x += 4) {
-            for (int z = 0; z < 16; z += 4) {
-                samples++;
-                BlockPos pos = new BlockPos(
-                    chunkPos.getMinBlockX() + x,
-                    (int) cameraPos.y - 1,
-                    chunkPos.getMinBlockZ() + z
-                );
-                
-                if (!level.isLoaded(pos)) continue;
-                
-                BlockState state = level.getBlockState(pos);
-                if (!state.isAir() && state.isSolidRender(level, pos)) {
-                    solidAbove++;
-                }
-            }
+    private int classifyCamera(Level level, Vec3 cameraPos, long cameraSectionKey) {
+        int skyLight = level.getLightEngine().getLayerListener(LightLayer.SKY)
+            .getLightValue(BlockPos.containing(cameraPos.x, cameraPos.y, cameraPos.z));
+        if (skyLight > 0) {
+            return SectionExposure.SURFACE;
         }
-        
-        return (double) solidAbove / samples > 0.6;
+        return sectionExposure.isEnclosedBy(level, cameraSectionKey, SectionExposure.BURIED)
+            ? SectionExposure.BURIED
+            : SectionExposure.UNKNOWN;
     }
-    
-    private boolean hasVerticalOpening(ChunkPos chunkPos, Vec3 cameraPos, Level level) {
-        for (int x = 4; x < 16; x += 6) {
-            for (int z = 4; z < 16; z += 6) {
-                BlockPos topPos = new BlockPos(
-                    chunkPos.getMinBlockX() + x,
-                    (int) cameraPos.y,
-                    chunkPos.getMinBlockZ() + z
-                );
-                
-                int airBlocks = 0;
-                for (int y = 0; y < 20; y++) {
-                    BlockPos checkPos = topPos.below(y);
-                    if (!level.isLoaded(checkPos)) break;
-                    
-                    if (level.getBlockState(checkPos).isAir()) {
-                        airBlocks++;
-                        if (airBlocks >= 4) {
-                            return true;
-                        }
-                    } else {
-                        airBlocks = 0;
-                    }
-                }
+
+    private boolean isSectionRayOccluded(Vec3 cameraPos, double minX, double minY, double minZ,
+                                         Level level, float aggressiveness) {
+        for (int[] offset : RAY_SAMPLE_OFFSETS) {
+            Vec3 target = new Vec3(minX + offset[0], minY + offset[1], minZ + offset[2]);
+            if (!raycastEngine.isChunkOccluded(cameraPos, target, level, aggressiveness)) {
+                return false;
             }
         }
-        return false;
+        return true;
     }
 
-    private int calculateChunkAverageHeight(ChunkPos chunkPos, Level level) {
-        LevelChunk chunk = level.getChunk(chunkPos.x, chunkPos.z);
-        if (chunk == null) return 64;
-        
-        int totalHeight = 0;
-        int samples = 0;
-        
-        for (int x = 0; x < 16; x += 8) {
-            for (int z = 0; z < 16; z += 8) {
-                int height = chunk.getHeight(net.minecraft.world.level.levelgen.Heightmap.Types.WORLD_SURFACE, x, z);
-                totalHeight += height;
-                samples++;
+    private boolean isOcclusionBoundary(long sectionKey, int verdict) {
+        int x = SectionPos.x(sectionKey);
+        int y = SectionPos.y(sectionKey);
+        int z = SectionPos.z(sectionKey);
+        for (int face = 0; face < SectionConnectivity.FACE_COUNT; face++) {
+            int neighbor = occlusionVerdicts.get(SectionPos.asLong(
+                x + SectionConnectivity.STEP_X[face],
+                y + SectionConnectivity.STEP_Y[face],
+                z + SectionConnectivity.STEP_Z[face]
+            ));
+            if (neighbor != UNTESTED && neighbor != verdict) {
+                return true;
             }
         }
-        
-        return samples > 0 ? totalHeight / samples : 64;
+        return false;
     }
 
-    private boolean shouldPerformRaycastTest(ChunkPos chunkPos, Vec3 cameraPos) {
-        Vec3 chunkCenter = getChunkCenter(chunkPos);
-        double distance = cameraPos.distanceTo(chunkCenter);
+    private boolean shouldPerformRaycastTest(double distance) {
         return distance > 64 && distance < 192;
     }
 
-    private Vec3 getChunkCenter(ChunkPos chunkPos) {
-        return new Vec3(
-            chunkPos.getMinBlockX() + 8,
-            64,
-            chunkPos.getMinBlockZ() + 8
+    private static float wrapDegrees(float degrees) {
+        float wrapped = degrees % 360.0f;
+        if (wrapped >= 180.0f) wrapped -= 360.0f;
+        if (wrapped < -180.0f) wrapped += 360.0f;
+        return wrapped;
+    }
+
+    private static long sectionKeyOf(Vec3 pos) {
+        return SectionPos.asLong(
+            SectionPos.blockToSectionCoord(pos.x),
+            SectionPos.blockToSectionCoord(pos.y),
+            SectionPos.blockToSectionCoord(pos.z)
         );
     }
 
     public boolean isChunkVisible(ChunkPos chunkPos) {
-        return visibleChunks.getOrDefault(chunkPos, true);
+        return publishedVisibility.get().isColumnVisible(chunkPos.x, chunkPos.z);
     }
     
     public boolean shouldRenderChunk(ChunkPos chunkPos) {
         return isChunkVisible(chunkPos);
     }
+
+    public boolean isSectionVisible(long sectionKey) {
+        return publishedVisibility.get().isSectionVisible(sectionKey);
+    }
+    
+    public boolean shouldRenderSection(long sectionKey) {
+        return isSectionVisible(sectionKey);
+    }
+
+    public boolean isSectionVisible(int sectionX, int sectionY, int sectionZ) {
+        return publishedVisibility.get().isSectionVisible(sectionX, sectionY, sectionZ);
+    }
+
+    public void onChunkUnload(ChunkPos chunkPos) {
+        horizonCuller.onChunkUnload(chunkPos.x, chunkPos.z);
+    }
+
+    public boolean isBoxOccluded(AABB box) {
+        VisibilitySet visibility = publishedVisibility.get();
+        int minX = SectionPos.blockToSectionCoord(box.minX);
+        int minY = SectionPos.blockToSectionCoord(box.minY);
+        int minZ = SectionPos.blockToSectionCoord(box.minZ);
+        int maxX = SectionPos.blockToSectionCoord(box.maxX);
+        int maxY = SectionPos.blockToSectionCoord(box.maxY);
+        int maxZ = SectionPos.blockToSectionCoord(box.maxZ);
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    int state = visibility.getSectionState(x, y, z);
+                    if (state != VisibilitySet.OCCLUDED && state != VisibilitySet.LIKELY_OCCLUDED) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    public int getSectionState(int sectionX, int sectionY, int sectionZ) {
+        return publishedVisibility.get().getSectionState(sectionX, sectionY, sectionZ);
+    }
+    
+    public boolean isVisibilityCurrent(Vec3 cameraPos) {
+        VisibilitySet visibility = publishedVisibility.get();
+        if (visibility.getCameraSectionKey() != sectionKeyOf(cameraPos)) {
+            return false;
+        }
+        return visibility.getRenderFrame() >= renderFrame
+            || cameraPos.distanceToSqr(visibility.getCameraPos()) <= MOVE_EPSILON_SQ;
+    }
+
+    public long getVisibilityFrameId() {
+        return publishedVisibility.get().getFrameId();
+    }
     
     public double getCullingEfficiency() {
-        int total = totalChunks.get();
+        VisibilitySet visibility = publishedVisibility.get();
+        int total = visibility.getTotalSections();
         if (total == 0) return 0.0;
-        return (culledChunks.get() * 100.0) / total;
+        return (visibility.getCulledSections() * 100.0) / total;
     }
 
     public void updateConfig(IcedTeaConfig newConfig) {
+        hasPreviousPass = false;
         visibilityCache.clear();
-        chunkHeightMap.clear();
         renderCache.clear();
         biomeOptimizer.clear();
         densityOptimizer.clear();
     }
     
     public void clearCache() {
+        latestDepthBuffer = null;
+        caveFloodFill.clear();
+        portalVisibility.clear();
+        horizonCuller.clear();
+        tileOccluders.clear();
+        regionCuller.clear();
+        sectionExposure.clear();
+        rayPairCache.clear();
+        sectionInvalidator.clear();
+        budgetScheduler.clear();
+        stageStats.reset();
         visibilityCache.clear();
-        visibleChunks.clear();
-        chunkHeightMap.clear();
+        publishedVisibility.get().invalidate();
+        occlusionVerdicts.clear();
+        hasPreviousPass = false;
         renderCache.clear();
+        compileScheduler.clear();
+        resortScheduler.clear();
+        sectionEvictor.clear();
         biomeOptimizer.clear();
         densityOptimizer.clear();
     }
     
+    public SectionCompileScheduler getCompileScheduler() {
+        return compileScheduler;
+    }
+
+    public OccludedSectionEvictor getSectionEvictor() {
+        return sectionEvictor;
+    }
+
+    public TranslucentResortScheduler getResortScheduler() {
+        return resortScheduler;
+    }
+
+    public SectionExposure getSectionExposure() {
+        return sectionExposure;
+    }
+
+    public CullingStageStats getStageStats() {
+        return stageStats;
+    }
+
+    public LowDensityOptimizer getDensityOptimizer() {
+        return densityOptimizer;
+    }
+
+    public BiomeAwareOptimizer getBiomeOptimizer() {
+        return biomeOptimizer;
+    }
+
     public RenderCacheSystem getRenderCache() {
         return renderCache;
     }
+
+    public SectionDataTracker getSectionTracker() {
+        return sectionTracker;
+    }
 }
\ No newline at end of file
@@ -2,23 +2,18 @@ package com.tejas.icedtea.culling;
 
 public class OcclusionData {
     private final boolean visible;
-    private final long timestamp;
-    private static final long EXPIRATION_TIME = 1000;
+    private final long frameId;
     
-    public OcclusionData(boolean visible) {
+    public OcclusionData(boolean visible, long frameId) {
         this.visible = visible;
-        this.timestamp = System.currentTimeMillis();
-    }
-    
-    public boolean isExpired() {
-        return System.currentTimeMillis() - timestamp > EXPIRATION_TIME;
+        this.frameId = frameId;
     }
 
     public boolean isVisible() {
         return visible;
     }
 
-    public long getTimestamp() {
-        return timestamp;
+    public long getFrameId() {
+        return frameId;
     }
-}
\ No newline at end of file
+}
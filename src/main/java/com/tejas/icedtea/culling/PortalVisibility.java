@@ -0,0 +1,541 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.IcedTeaMod;
+import com.tejas.icedtea.util.ThreadPoolManager;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PortalVisibility {
+    private static final int FLOOD_EXTENT = 32;
+    private static final int FLOOD_SIZE = FLOOD_EXTENT * 2 + 1;
+    private static final int MAX_CELL_BLOCKS = 65536;
+    private static final int MAX_PORTAL_BLOCKS = 1024;
+    private static final int MAX_PORTAL_DEPTH = 3;
+    private static final int MAX_CACHED_VIEWERS = 64;
+    private static final int LEAK_REUSE_DISTANCE = 8;
+    private static final int VIEWER_SHIFT = 2;
+
+    private static final int AIR = 0;
+    private static final int TRANSLUCENT = 1;
+    private static final int OPAQUE = 2;
+    private static final int UNKNOWN = 3;
+
+    private final SectionDataTracker sectionTracker;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger version = new AtomicInteger(0);
+    private final AtomicInteger structureVersion = new AtomicInteger(0);
+    private volatile Cell cell;
+    private volatile Pvs published;
+
+    public PortalVisibility(SectionDataTracker sectionTracker) {
+        this.sectionTracker = sectionTracker;
+    }
+
+    public void requestUpdate(Vec3 cameraPos, int radius, int minSection, int maxSection) {
+        int blockX = (int) Math.floor(cameraPos.x);
+        int blockY = (int) Math.floor(cameraPos.y);
+        int blockZ = (int) Math.floor(cameraPos.z);
+        long viewerKey = viewerKeyOf(cameraPos);
+
+        int structure = structureVersion.get();
+        Cell current = cell;
+        boolean reuse = current != null
+            && current.isValidFor(blockX, blockY, blockZ, structure, radius, minSection, maxSection);
+        if (reuse) {
+            if (!current.enclosed) {
+                publish(null);
+                return;
+            }
+            Pvs pvs = published;
+            if (pvs != null && pvs.cell == current && pvs.viewerKey == viewerKey) {
+                return;
+            }
+            Pvs cached = current.viewers.get(viewerKey);
+            if (cached != null) {
+                publish(cached);
+                return;
+            }
+        }
+
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        Cell base = reuse ? current : null;
+        ThreadPoolManager.execute(() -> {
+            try {
+                Cell target = base != null ? base
+                    : flood(blockX, blockY, blockZ, structure, radius, minSection, maxSection);
+                cell = target;
+                if (!target.enclosed) {
+                    publish(null);
+                    return;
+                }
+
+                if (target.viewers.size() >= MAX_CACHED_VIEWERS) {
+                    target.viewers.clear();
+                }
+                Pvs pvs = target.viewers.computeIfAbsent(viewerKey, key -> buildPvs(target, key));
+                publish(pvs);
+
+                if (IcedTeaMod.isDebugMode()) {
+                    IcedTeaMod.LOGGER.info("[IcedTea][PORTAL] Cell of {} blocks, {} portals, {} of {} sections potentially visible",
+                        target.blockCount, target.portalCount, pvs.visibleCount, pvs.sectionCount);
+                }
+            } catch (Exception e) {
+                IcedTeaMod.LOGGER.error("Error computing portal visibility", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    public boolean isSectionHidden(int sectionX, int sectionY, int sectionZ, long viewerKey) {
+        Pvs pvs = published;
+        if (pvs == null || pvs.viewerKey != viewerKey || pvs.cell.structureVersion != structureVersion.get()) {
+            return false;
+        }
+        return !pvs.isSectionVisible(sectionX, sectionY, sectionZ);
+    }
+
+    public boolean isRegionHidden(int fromX, int fromZ, int toX, int toZ, long viewerKey) {
+        Pvs pvs = published;
+        if (pvs == null || pvs.viewerKey != viewerKey || pvs.cell.structureVersion != structureVersion.get()) {
+            return false;
+        }
+        return pvs.coverage.isEmpty(fromX, fromZ, toX, toZ);
+    }
+
+    public void onSectionChanged(long sectionKey) {
+        Cell current = cell;
+        if (current == null || current.touchesSection(sectionKey)) {
+            structureVersion.incrementAndGet();
+            if (published != null) {
+                version.incrementAndGet();
+            }
+        }
+    }
+
+    public int getVersion() {
+        return version.get();
+    }
+
+    public void clear() {
+        cell = null;
+        published = null;
+        structureVersion.incrementAndGet();
+        version.incrementAndGet();
+    }
+
+    public static long viewerKeyOf(Vec3 cameraPos) {
+        return BlockPos.asLong(
+            (int) Math.floor(cameraPos.x) >> VIEWER_SHIFT,
+            (int) Math.floor(cameraPos.y) >> VIEWER_SHIFT,
+            (int) Math.floor(cameraPos.z) >> VIEWER_SHIFT
+        );
+    }
+
+    private void publish(Pvs pvs) {
+        if (published != pvs) {
+            published = pvs;
+            version.incrementAndGet();
+        }
+    }
+
+    private Cell flood(int originX, int originY, int originZ, int structure, int radius, int minSection, int maxSection) {
+        Cell result = new Cell(originX, originY, originZ, structure, radius, minSection, maxSection);
+        BlockSampler sampler = new BlockSampler(sectionTracker.getSolidStore(), sectionTracker.getOpacityStore());
+        if (sampler.sample(originX, originY, originZ) != AIR) {
+            return result;
+        }
+
+        int bottomY = minSection << 4;
+        int topY = maxSection << 4;
+
+        int[] queue = new int[4096];
+        int head = 0;
+        int tail = 0;
+        IntArrayList candidates = new IntArrayList();
+
+        int start = result.index(originX, originY, originZ);
+        result.visited.set(start);
+        queue[tail++] = start;
+        result.include(originX, originY, originZ);
+
+        while (head < tail) {
+            int index = queue[head++];
+            int x = result.blockX(index);
+            int y = result.blockY(index);
+            int z = result.blockZ(index);
+
+            for (int face = 0; face < SectionConnectivity.FACE_COUNT; face++) {
+                int nx = x + SectionConnectivity.STEP_X[face];
+                int ny = y + SectionConnectivity.STEP_Y[face];
+                int nz = z + SectionConnectivity.STEP_Z[face];
+
+                if (!result.inBox(nx, ny, nz) || ny >= topY) return result;
+                if (ny < bottomY) continue;
+
+                int neighbour = result.index(nx, ny, nz);
+                if (result.visited.get(neighbour)) continue;
+
+                int block = sampler.sample(nx, ny, nz);
+                if (block == UNKNOWN) return result;
+                if (block == TRANSLUCENT) {
+                    candidates.add(neighbour);
+                    candidates.add(face);
+                } else if (block == AIR) {
+                    if (tail >= MAX_CELL_BLOCKS) return result;
+                    if (tail == queue.length) {
+                        int[] grown = new int[queue.length * 2];
+                        System.arraycopy(queue, 0, grown, 0, tail);
+                        queue = grown;
+                    }
+                    result.visited.set(neighbour);
+                    queue[tail++] = neighbour;
+                    result.include(nx, ny, nz);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        HashMap<Long, int[]>[] groups = new HashMap[SectionConnectivity.FACE_COUNT];
+        int portalBlocks = 0;
+        for (int i = 0; i < candidates.size(); i += 2) {
+            int index = candidates.getInt(i);
+            int face = candidates.getInt(i + 1);
+            if (!isOpening(result, sampler, index, face, bottomY, topY)) continue;
+            if (++portalBlocks > MAX_PORTAL_BLOCKS) return result;
+
+            int x = result.blockX(index);
+            int y = result.blockY(index);
+            int z = result.blockZ(index);
+            if (groups[face] == null) {
+                groups[face] = new HashMap<>();
+            }
+            int[] box = groups[face].computeIfAbsent(
+                SectionPos.asLong(x >> 4, y >> 4, z >> 4),
+                key -> new int[] { x, y, z, x + 1, y + 1, z + 1 }
+            );
+            box[0] = Math.min(box[0], x);
+            box[1] = Math.min(box[1], y);
+            box[2] = Math.min(box[2], z);
+            box[3] = Math.max(box[3], x + 1);
+            box[4] = Math.max(box[4], y + 1);
+            box[5] = Math.max(box[5], z + 1);
+        }
+
+        IntArrayList portals = new IntArrayList();
+        for (int face = 0; face < SectionConnectivity.FACE_COUNT; face++) {
+            if (groups[face] == null) continue;
+            for (int[] box : groups[face].values()) {
+                portals.addElements(portals.size(), box);
+                portals.add(face);
+            }
+        }
+
+        result.blockCount = tail;
+        result.portalCount = portalBlocks;
+        result.portals = portals.toIntArray();
+        result.enclosed = true;
+        return result;
+    }
+
+    private static boolean isOpening(Cell cell, BlockSampler sampler, int index, int face, int bottomY, int topY) {
+        int x = cell.blockX(index);
+        int y = cell.blockY(index);
+        int z = cell.blockZ(index);
+
+        for (int depth = 0; depth < MAX_PORTAL_DEPTH; depth++) {
+            x += SectionConnectivity.STEP_X[face];
+            y += SectionConnectivity.STEP_Y[face];
+            z += SectionConnectivity.STEP_Z[face];
+
+            if (!cell.inBox(x, y, z) || y >= topY) return true;
+            if (y < bottomY) return false;
+
+            int block = sampler.sample(x, y, z);
+            if (block == UNKNOWN) return true;
+            if (block == OPAQUE) return false;
+            if (block == AIR) return !cell.visited.get(cell.index(x, y, z));
+        }
+        return true;
+    }
+
+    private static Pvs buildPvs(Cell cell, long viewerKey) {
+        int viewerX = BlockPos.getX(viewerKey) << VIEWER_SHIFT;
+        int viewerY = BlockPos.getY(viewerKey) << VIEWER_SHIFT;
+        int viewerZ = BlockPos.getZ(viewerKey) << VIEWER_SHIFT;
+        double[] viewer = {
+            Math.max(viewerX, cell.minX), Math.max(viewerY, cell.minY), Math.max(viewerZ, cell.minZ),
+            Math.min(viewerX + (1 << VIEWER_SHIFT), cell.maxX + 1),
+            Math.min(viewerY + (1 << VIEWER_SHIFT), cell.maxY + 1),
+            Math.min(viewerZ + (1 << VIEWER_SHIFT), cell.maxZ + 1)
+        };
+
+        Pvs pvs = new Pvs(cell, viewerKey);
+        markBlocks(pvs, cell.minX, cell.minY, cell.minZ, cell.maxX + 1, cell.maxY + 1, cell.maxZ + 1);
+
+        int[] portals = cell.portals;
+        int portalCount = portals.length / 7;
+        double[][] clipped = new double[portalCount][];
+        double[][] openings = new double[portalCount][];
+        for (int i = 0; i < portalCount; i++) {
+            int base = i * 7;
+            markBlocks(pvs, portals[base], portals[base + 1], portals[base + 2],
+                portals[base + 3], portals[base + 4], portals[base + 5]);
+
+            double[] opening = new double[6];
+            for (int axis = 0; axis < 6; axis++) {
+                opening[axis] = portals[base + axis];
+            }
+            double[] from = viewer.clone();
+            int face = portals[base + 6];
+            int[] step = { SectionConnectivity.STEP_X[face], SectionConnectivity.STEP_Y[face], SectionConnectivity.STEP_Z[face] };
+            for (int axis = 0; axis < 3; axis++) {
+                if (step[axis] > 0) from[axis + 3] = Math.min(from[axis + 3], opening[axis]);
+                if (step[axis] < 0) from[axis] = Math.max(from[axis], opening[axis + 3]);
+            }
+            if (from[0] > from[3] || from[1] > from[4] || from[2] > from[5]) continue;
+
+            clipped[i] = from;
+            openings[i] = opening;
+        }
+
+        double[] section = new double[6];
+        for (int x = pvs.originX - pvs.radius; x <= pvs.originX + pvs.radius; x++) {
+            for (int z = pvs.originZ - pvs.radius; z <= pvs.originZ + pvs.radius; z++) {
+                for (int y = pvs.minSection; y < pvs.minSection + pvs.height; y++) {
+                    int index = pvs.index(x, y, z);
+                    if (pvs.visible.get(index)) continue;
+
+                    section[0] = x << 4;
+                    section[1] = y << 4;
+                    section[2] = z << 4;
+                    section[3] = section[0] + 16;
+                    section[4] = section[1] + 16;
+                    section[5] = section[2] + 16;
+
+                    for (int i = 0; i < portalCount; i++) {
+                        if (clipped[i] != null && shaftReaches(clipped[i], openings[i], section)) {
+                            pvs.visible.set(index);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        pvs.visibleCount = pvs.visible.cardinality();
+        boolean[] columns = new boolean[pvs.width * pvs.width];
+        for (int column = 0; column < columns.length; column++) {
+            int start = column * pvs.height;
+            int next = pvs.visible.nextSetBit(start);
+            columns[column] = next >= 0 && next < start + pvs.height;
+        }
+        pvs.coverage = new ColumnCoverage(pvs.originX - pvs.radius, pvs.originZ - pvs.radius, pvs.width, columns);
+        return pvs;
+    }
+
+    private static boolean shaftReaches(double[] viewer, double[] opening, double[] target) {
+        double low = 0.0;
+        double high = 1.0;
+        for (int axis = 0; axis < 3; axis++) {
+            double slope = target[axis] - viewer[axis];
+            double limit = opening[axis + 3] - viewer[axis];
+            if (slope > 0) high = Math.min(high, limit / slope);
+            else if (slope < 0) low = Math.max(low, limit / slope);
+            else if (limit < 0) return false;
+
+            slope = viewer[axis + 3] - target[axis + 3];
+            limit = viewer[axis + 3] - opening[axis];
+            if (slope > 0) high = Math.min(high, limit / slope);
+            else if (slope < 0) low = Math.max(low, limit / slope);
+            else if (limit < 0) return false;
+
+            if (low > high) return false;
+        }
+        return true;
+    }
+
+    private static void markBlocks(Pvs pvs, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        for (int x = minX >> 4; x <= (maxX - 1) >> 4; x++) {
+            for (int z = minZ >> 4; z <= (maxZ - 1) >> 4; z++) {
+                for (int y = minY >> 4; y <= (maxY - 1) >> 4; y++) {
+                    if (pvs.contains(x, y, z)) {
+                        pvs.visible.set(pvs.index(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class BlockSampler {
+        private final SectionOpacityStore solidStore;
+        private final SectionOpacityStore opacityStore;
+        private long cachedKey = Long.MIN_VALUE;
+        private final long[] solidMask = new long[SectionOpacityStore.WORDS_PER_SECTION];
+        private final long[] opaqueMask = new long[SectionOpacityStore.WORDS_PER_SECTION];
+        private int solidState;
+        private int opaqueState;
+
+        BlockSampler(SectionOpacityStore solidStore, SectionOpacityStore opacityStore) {
+            this.solidStore = solidStore;
+            this.opacityStore = opacityStore;
+        }
+
+        int sample(int x, int y, int z) {
+            long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            if (key != cachedKey) {
+                cachedKey = key;
+                solidState = solidStore.copyMask(key, solidMask);
+                opaqueState = opacityStore.copyMask(key, opaqueMask);
+            }
+
+            if (solidState == SectionOpacityStore.MISSING || opaqueState == SectionOpacityStore.MISSING) return UNKNOWN;
+            if (solidState == SectionOpacityStore.EMPTY) return AIR;
+            if (solidState >= 0 && !SectionOpacityStore.isOpaque(solidMask, x & 15, y & 15, z & 15)) return AIR;
+            if (opaqueState == SectionOpacityStore.FULL) return OPAQUE;
+            if (opaqueState >= 0 && SectionOpacityStore.isOpaque(opaqueMask, x & 15, y & 15, z & 15)) return OPAQUE;
+            return TRANSLUCENT;
+        }
+    }
+
+    private static final class Cell {
+        final int originX;
+        final int originY;
+        final int originZ;
+        final int structureVersion;
+        final int radius;
+        final int minSection;
+        final int maxSection;
+        final BitSet visited = new BitSet(FLOOD_SIZE * FLOOD_SIZE * FLOOD_SIZE);
+        final ConcurrentHashMap<Long, Pvs> viewers = new ConcurrentHashMap<>();
+
+        boolean enclosed;
+        int blockCount;
+        int portalCount;
+        int[] portals = new int[0];
+        int minX, minY, minZ;
+        int maxX, maxY, maxZ;
+
+        Cell(int originX, int originY, int originZ, int structureVersion, int radius, int minSection, int maxSection) {
+            this.originX = originX;
+            this.originY = originY;
+            this.originZ = originZ;
+            this.structureVersion = structureVersion;
+            this.radius = radius;
+            this.minSection = minSection;
+            this.maxSection = maxSection;
+            this.minX = this.maxX = originX;
+            this.minY = this.maxY = originY;
+            this.minZ = this.maxZ = originZ;
+        }
+
+        boolean isValidFor(int x, int y, int z, int structure, int radius, int minSection, int maxSection) {
+            if (structure != structureVersion || radius != this.radius
+                || minSection != this.minSection || maxSection != this.maxSection) {
+                return false;
+            }
+            if (x == originX && y == originY && z == originZ) {
+                return true;
+            }
+            if (!inBox(x, y, z) || !visited.get(index(x, y, z))) {
+                return false;
+            }
+            return enclosed || (Math.abs(x - originX) <= LEAK_REUSE_DISTANCE
+                && Math.abs(y - originY) <= LEAK_REUSE_DISTANCE
+                && Math.abs(z - originZ) <= LEAK_REUSE_DISTANCE);
+        }
+
+        boolean touchesSection(long sectionKey) {
+            int x = SectionPos.x(sectionKey) << 4;
+            int y = SectionPos.y(sectionKey) << 4;
+            int z = SectionPos.z(sectionKey) << 4;
+            return x + 16 >= originX - FLOOD_EXTENT && x <= originX + FLOOD_EXTENT + 1
+                && y + 16 >= originY - FLOOD_EXTENT && y <= originY + FLOOD_EXTENT + 1
+                && z + 16 >= originZ - FLOOD_EXTENT && z <= originZ + FLOOD_EXTENT + 1;
+        }
+
+        boolean inBox(int x, int y, int z) {
+            return Math.abs(x - originX) <= FLOOD_EXTENT
+                && Math.abs(y - originY) <= FLOOD_EXTENT
+                && Math.abs(z - originZ) <= FLOOD_EXTENT;
+        }
+
+        void include(int x, int y, int z) {
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+
+        int index(int x, int y, int z) {
+            return ((x - originX + FLOOD_EXTENT) * FLOOD_SIZE + (z - originZ + FLOOD_EXTENT)) * FLOOD_SIZE
+                + (y - originY + FLOOD_EXTENT);
+        }
+
+        int blockX(int index) {
+            return index / FLOOD_SIZE / FLOOD_SIZE - FLOOD_EXTENT + originX;
+        }
+
+        int blockZ(int index) {
+            return index / FLOOD_SIZE % FLOOD_SIZE - FLOOD_EXTENT + originZ;
+        }
+
+        int blockY(int index) {
+            return index % FLOOD_SIZE - FLOOD_EXTENT + originY;
+        }
+    }
+
+    private static final class Pvs {
+        final Cell cell;
+        final long viewerKey;
+        final int originX;
+        final int originZ;
+        final int radius;
+        final int width;
+        final int minSection;
+        final int height;
+        final int sectionCount;
+        final BitSet visible;
+        int visibleCount;
+        ColumnCoverage coverage;
+
+        Pvs(Cell cell, long viewerKey) {
+            this.cell = cell;
+            this.viewerKey = viewerKey;
+            this.originX = cell.originX >> 4;
+            this.originZ = cell.originZ >> 4;
+            this.radius = cell.radius + (FLOOD_EXTENT >> 4) + 1;
+            this.width = radius * 2 + 1;
+            this.minSection = cell.minSection;
+            this.height = cell.maxSection - cell.minSection;
+            this.sectionCount = width * width * height;
+            this.visible = new BitSet(sectionCount);
+        }
+
+        boolean contains(int x, int y, int z) {
+            return Math.abs(x - originX) <= radius && Math.abs(z - originZ) <= radius
+                && y >= minSection && y < minSection + height;
+        }
+
+        int index(int x, int y, int z) {
+            return ((x - originX + radius) * width + (z - originZ + radius)) * height + (y - minSection);
+        }
+
+        boolean isSectionVisible(int x, int y, int z) {
+            return !contains(x, y, z) || visible.get(index(x, y, z));
+        }
+    }
+}
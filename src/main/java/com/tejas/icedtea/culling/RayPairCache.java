@@ -0,0 +1,33 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+
+import java.util.function.LongPredicate;
+
+public class RayPairCache {
+    public static final int UNKNOWN = 0;
+    public static final int VISIBLE = 1;
+    public static final int OCCLUDED = 2;
+
+    private final ConcurrentLongIntMap results = new ConcurrentLongIntMap(8192, UNKNOWN);
+
+    public int get(long targetSectionKey) {
+        return results.get(targetSectionKey);
+    }
+
+    public void put(long targetSectionKey, boolean occluded) {
+        results.put(targetSectionKey, occluded ? OCCLUDED : VISIBLE);
+    }
+
+    public void removeIf(LongPredicate predicate) {
+        results.removeIf((key, value) -> predicate.test(key));
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    public void clear() {
+        results.clear();
+    }
+}
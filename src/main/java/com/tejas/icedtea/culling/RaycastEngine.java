@@ -1,55 +1,48 @@
 package com.tejas.icedtea.culling;
 
-import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
 
 public class RaycastEngine {
     private static final int MAX_RAYCAST_DISTANCE = 256;
-    private static final double STEP_SIZE = 0.75;
+
+    private final SectionOpacityStore opacityStore;
+
+    public RaycastEngine() {
+        this(null);
+    }
+
+    public RaycastEngine(SectionOpacityStore opacityStore) {
+        this.opacityStore = opacityStore;
+    }
 
     public boolean isChunkOccluded(Vec3 origin, Vec3 target, Level level, float aggressiveness) {
         if (level == null) return false;
         
         double distance = origin.distanceTo(target);
         if (distance > MAX_RAYCAST_DISTANCE) return false;
-        
-        Vec3 direction = target.subtract(origin).normalize();
 
         int requiredOpaqueBlocks = (int) (2 + (aggressiveness * 4));
         int opaqueBlocksHit = 0;
         int totalSamples = 0;
-        
-        double stepSize = STEP_SIZE * (1.8 - (aggressiveness * 0.8));
-        int maxSteps = (int) (distance / stepSize);
-        
-        BlockPos lastPos = null;
         int consecutiveAir = 0;
         int consecutiveOpaque = 0;
         
-        for (int i = 1; i < maxSteps; i++) {
-            Vec3 point = origin.add(direction.scale(i * stepSize));
-            BlockPos pos = BlockPos.containing(point.x, point.y, point.z);
-            
-            if (pos.equals(lastPos)) continue;
-            lastPos = pos;
-            
-            totalSamples++;
-            
-            if (totalSamples > 15 && opaqueBlocksHit == 0) {
+        VoxelTraversal ray = new VoxelTraversal(level, opacityStore, origin, target);
+        int kind;
+        while ((kind = ray.next()) != VoxelTraversal.END) {
+            if (kind == VoxelTraversal.UNLOADED) {
                 return false;
             }
             
-            if (!level.isLoaded(pos)) {
-                return false;
-            }
+            boolean opaque = kind == VoxelTraversal.OPAQUE
+                || (kind == VoxelTraversal.BLOCK && ray.isBlockOpaque());
             
-            BlockState state = level.getBlockState(pos);
+            int run = ray.runLength();
             
-            if (!state.isAir() && state.isSolidRender(level, pos)) {
-                opaqueBlocksHit++;
-                consecutiveOpaque++;
+            if (opaque) {
+                opaqueBlocksHit += run;
+                consecutiveOpaque += run;
                 consecutiveAir = 0;
                 
                 if (consecutiveOpaque >= 3) {
@@ -60,10 +53,16 @@ public class RaycastEngine {
                     return true;
                 }
             } else {
-                consecutiveAir++;
+                consecutiveAir += run;
                 consecutiveOpaque = 0;
             }
             
+            totalSamples += run;
+            
+            if (totalSamples > 15 && opaqueBlocksHit == 0) {
+                return false;
+            }
+            
             if (consecutiveAir > 8 && opaqueBlocksHit > 0 && opaqueBlocksHit < requiredOpaqueBlocks) {
                 return false;
             }
@@ -78,32 +77,23 @@ public class RaycastEngine {
         double distance = from.distanceTo(to);
         if (distance > 128) return true;
         
-        Vec3 direction = to.subtract(from).normalize();
-        double stepSize = 1.0;
-        int maxSteps = (int) (distance / stepSize);
-        
-        BlockPos lastPos = null;
         int opaqueBlocks = 0;
         
-        for (int i = 1; i < maxSteps; i++) {
-            Vec3 point = from.add(direction.scale(i * stepSize));
-            BlockPos pos = BlockPos.containing(point.x, point.y, point.z);
-            
-            if (pos.equals(lastPos)) continue;
-            lastPos = pos;
-            
-            if (!level.isLoaded(pos)) {
+        VoxelTraversal ray = new VoxelTraversal(level, opacityStore, from, to);
+        int kind;
+        while ((kind = ray.next()) != VoxelTraversal.END) {
+            if (kind == VoxelTraversal.UNLOADED) {
                 return true;
             }
             
-            BlockState state = level.getBlockState(pos);
-            
-            if (!state.isAir() && state.isSolidRender(level, pos) && state.canOcclude()) {
+            if (kind == VoxelTraversal.OPAQUE) {
+                opaqueBlocks += ray.runLength();
+            } else if (kind == VoxelTraversal.BLOCK && ray.isBlockOpaque()) {
                 opaqueBlocks++;
-                
-                if (opaqueBlocks >= 2) {
-                    return false;
-                }
+            }
+            
+            if (opaqueBlocks >= 2) {
+                return false;
             }
         }
         
@@ -113,34 +103,30 @@ public class RaycastEngine {
     public boolean hasVisibleOpening(Vec3 origin, Vec3 direction, Level level, double searchDistance) {
         if (level == null) return false;
         
-        double stepSize = 2.0;
-        int maxSteps = (int) (searchDistance / stepSize);
-        
-        BlockPos lastPos = null;
         boolean foundOpaque = false;
         
-        for (int i = 1; i < maxSteps; i++) {
-            Vec3 point = origin.add(direction.scale(i * stepSize));
-            BlockPos pos = BlockPos.containing(point.x, point.y, point.z);
-            
-            if (pos.equals(lastPos)) continue;
-            lastPos = pos;
-            
-            if (!level.isLoaded(pos)) {
+        VoxelTraversal ray = new VoxelTraversal(level, opacityStore, origin, origin.add(direction.scale(searchDistance)));
+        int kind;
+        while ((kind = ray.next()) != VoxelTraversal.END) {
+            if (kind == VoxelTraversal.UNLOADED) {
                 return true;
             }
             
-            BlockState state = level.getBlockState(pos);
-            
-            if (state.isAir()) {
+            if (kind == VoxelTraversal.AIR) {
+                if (foundOpaque) {
+                    return true;
+                }
+            } else if (kind == VoxelTraversal.OPAQUE) {
+                foundOpaque = true;
+            } else if (ray.isBlockAir()) {
                 if (foundOpaque) {
                     return true;
                 }
-            } else if (state.isSolidRender(level, pos)) {
+            } else if (ray.isBlockOpaque()) {
                 foundOpaque = true;
             }
         }
         
         return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,262 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.IcedTeaMod;
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Arrays;
+
+public class RegionCuller {
+    public static final int TILE_SHIFT = 2;
+    public static final int MID_SHIFT = 3;
+    public static final int TOP_SHIFT = 5;
+
+    private static final int COLUMN_SHIFT = 0;
+    private static final int NO_TOP = Integer.MIN_VALUE;
+    private static final int[] CHILD_SHIFT = new int[TOP_SHIFT + 1];
+    static {
+        CHILD_SHIFT[TOP_SHIFT] = MID_SHIFT;
+        CHILD_SHIFT[MID_SHIFT] = TILE_SHIFT;
+        CHILD_SHIFT[TILE_SHIFT] = COLUMN_SHIFT;
+    }
+
+    private final SectionOpacityStore opacityStore;
+    private final ConcurrentLongIntMap regionTops = new ConcurrentLongIntMap(8192, NO_TOP);
+    private final FrustumBatch.Bounds[] boundsByShift = new FrustumBatch.Bounds[TOP_SHIFT + 2];
+    private final IntArrayList acceptedTiles = new IntArrayList();
+
+    private VisibilitySet visibility;
+    private FrustumBatch frustum;
+    private HorizonCuller horizon;
+    private CaveFloodFill caves;
+    private PortalVisibility portals;
+    private Vec3 cameraPos;
+    private long cameraSectionKey;
+    private long viewerKey;
+    private int minChunkX;
+    private int minChunkZ;
+    private int maxChunkX;
+    private int maxChunkZ;
+    private int minSection;
+    private int maxSection;
+    private int frustumRejected;
+    private int horizonRejected;
+    private int caveRejected;
+    private int portalRejected;
+
+    public RegionCuller(SectionOpacityStore opacityStore) {
+        this.opacityStore = opacityStore;
+        for (int i = 0; i < boundsByShift.length; i++) {
+            boundsByShift[i] = new FrustumBatch.Bounds();
+        }
+    }
+
+    public int[] collectTiles(VisibilitySet visibility, FrustumBatch frustum, HorizonCuller horizon,
+                              CaveFloodFill caves, PortalVisibility portals, Vec3 cameraPos,
+                              int cameraChunkX, int cameraChunkZ, int radius, int minSection, int maxSection) {
+        this.visibility = visibility;
+        this.frustum = frustum;
+        this.horizon = horizon;
+        this.caves = caves;
+        this.portals = portals;
+        this.cameraPos = cameraPos;
+        this.cameraSectionKey = SectionPos.asLong(
+            cameraChunkX, SectionPos.blockToSectionCoord(cameraPos.y), cameraChunkZ);
+        this.viewerKey = PortalVisibility.viewerKeyOf(cameraPos);
+        this.minChunkX = cameraChunkX - radius;
+        this.minChunkZ = cameraChunkZ - radius;
+        this.maxChunkX = cameraChunkX + radius;
+        this.maxChunkZ = cameraChunkZ + radius;
+        this.minSection = minSection;
+        this.maxSection = maxSection;
+        frustumRejected = 0;
+        horizonRejected = 0;
+        caveRejected = 0;
+        portalRejected = 0;
+        acceptedTiles.clear();
+
+        visitChildren(TOP_SHIFT + 1, minChunkX >> TOP_SHIFT, minChunkZ >> TOP_SHIFT,
+            maxChunkX >> TOP_SHIFT, maxChunkZ >> TOP_SHIFT);
+
+        int count = acceptedTiles.size() / 2;
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            long dx = ((long) acceptedTiles.getInt(i * 2) << 1) + 3 - (cameraChunkX << 1);
+            long dz = ((long) acceptedTiles.getInt(i * 2 + 1) << 1) + 3 - (cameraChunkZ << 1);
+            order[i] = ((dx * dx + dz * dz) << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int[] tiles = new int[count * 2];
+        for (int i = 0; i < count; i++) {
+            int index = (int) order[i];
+            tiles[i * 2] = acceptedTiles.getInt(index * 2);
+            tiles[i * 2 + 1] = acceptedTiles.getInt(index * 2 + 1);
+        }
+
+        if (IcedTeaMod.isDebugMode()) {
+            IcedTeaMod.LOGGER.info("[IcedTea][REGION] {} tiles accepted, {} regions outside frustum, {} below horizon, {} unreachable, {} outside portal view",
+                count, frustumRejected, horizonRejected, caveRejected, portalRejected);
+        }
+        this.visibility = null;
+        this.frustum = null;
+        this.horizon = null;
+        this.caves = null;
+        this.portals = null;
+        return tiles;
+    }
+
+    public void onSectionChanged(long sectionKey) {
+        int chunkX = SectionPos.x(sectionKey);
+        int chunkZ = SectionPos.z(sectionKey);
+        regionTops.remove(regionKey(COLUMN_SHIFT, chunkX, chunkZ));
+        regionTops.remove(regionKey(TILE_SHIFT, chunkX >> TILE_SHIFT, chunkZ >> TILE_SHIFT));
+        regionTops.remove(regionKey(MID_SHIFT, chunkX >> MID_SHIFT, chunkZ >> MID_SHIFT));
+        regionTops.remove(regionKey(TOP_SHIFT, chunkX >> TOP_SHIFT, chunkZ >> TOP_SHIFT));
+    }
+
+    public void clear() {
+        regionTops.clear();
+    }
+
+    private void visitChildren(int shift, int fromX, int fromZ, int toX, int toZ) {
+        int childShift = shift > TOP_SHIFT ? TOP_SHIFT : CHILD_SHIFT[shift];
+        FrustumBatch.Bounds bounds = boundsByShift[childShift];
+        bounds.clear();
+
+        int span = toZ - fromZ + 1;
+        for (int x = fromX; x <= toX; x++) {
+            if ((x << childShift) > maxChunkX || ((x + 1) << childShift) <= minChunkX) continue;
+            for (int z = fromZ; z <= toZ; z++) {
+                if ((z << childShift) > maxChunkZ || ((z + 1) << childShift) <= minChunkZ) continue;
+                int top = getRegionTop(childShift, x, z);
+                if (top < minSection) continue;
+
+                int x0 = Math.max(x << childShift, minChunkX) << 4;
+                int z0 = Math.max(z << childShift, minChunkZ) << 4;
+                int x1 = (Math.min(((x + 1) << childShift) - 1, maxChunkX) + 1) << 4;
+                int z1 = (Math.min(((z + 1) << childShift) - 1, maxChunkZ) + 1) << 4;
+                bounds.add((x - fromX) * span + (z - fromZ),
+                    (float) (x0 - cameraPos.x), (float) ((minSection << 4) - cameraPos.y), (float) (z0 - cameraPos.z),
+                    (float) (x1 - cameraPos.x), (float) (((top + 1) << 4) - cameraPos.y), (float) (z1 - cameraPos.z));
+            }
+        }
+
+        if (frustum != null) {
+            frustum.test(bounds);
+        } else {
+            bounds.markAllInside();
+        }
+
+        int count = bounds.size();
+        int[] children = new int[count];
+        boolean[] inside = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            children[i] = bounds.getSectionY(i);
+            inside[i] = bounds.isInside(i);
+        }
+
+        for (int i = 0; i < count; i++) {
+            int x = fromX + children[i] / span;
+            int z = fromZ + children[i] % span;
+            if (!inside[i]) {
+                frustumRejected++;
+                markColumns(childShift, x, z, false);
+                continue;
+            }
+
+            int top = getRegionTop(childShift, x, z);
+            if (horizon != null && horizon.isRegionHidden(childShift, x, z, top)) {
+                horizonRejected++;
+                markColumns(childShift, x, z, true);
+                continue;
+            }
+
+            int x0 = Math.max(x << childShift, minChunkX);
+            int z0 = Math.max(z << childShift, minChunkZ);
+            int x1 = Math.min(((x + 1) << childShift) - 1, maxChunkX);
+            int z1 = Math.min(((z + 1) << childShift) - 1, maxChunkZ);
+            if (caves != null && caves.isRegionHidden(x0, z0, x1, z1, cameraSectionKey)) {
+                caveRejected++;
+                markColumns(childShift, x, z, true);
+                continue;
+            }
+            if (portals != null && portals.isRegionHidden(x0, z0, x1, z1, viewerKey)) {
+                portalRejected++;
+                markColumns(childShift, x, z, true);
+                continue;
+            }
+
+            if (childShift == TILE_SHIFT) {
+                acceptedTiles.add(x << TILE_SHIFT);
+                acceptedTiles.add(z << TILE_SHIFT);
+                continue;
+            }
+
+            int childSpan = 1 << (childShift - CHILD_SHIFT[childShift]);
+            visitChildren(childShift, x * childSpan, z * childSpan, x * childSpan + childSpan - 1, z * childSpan + childSpan - 1);
+        }
+    }
+
+    private void markColumns(int shift, int regionX, int regionZ, boolean occluded) {
+        int fromX = Math.max(regionX << shift, minChunkX);
+        int fromZ = Math.max(regionZ << shift, minChunkZ);
+        int toX = Math.min(((regionX + 1) << shift) - 1, maxChunkX);
+        int toZ = Math.min(((regionZ + 1) << shift) - 1, maxChunkZ);
+        for (int x = fromX; x <= toX; x++) {
+            for (int z = fromZ; z <= toZ; z++) {
+                if (!occluded) {
+                    visibility.putColumn(x, z, false);
+                    continue;
+                }
+
+                int top = getRegionTop(COLUMN_SHIFT, x, z);
+                int hidden = 0;
+                for (int sectionY = minSection; sectionY <= top; sectionY++) {
+                    if (opacityStore.getSectionState(SectionPos.asLong(x, sectionY, z)) == SectionOpacityStore.EMPTY) {
+                        continue;
+                    }
+                    visibility.putSection(x, sectionY, z, VisibilitySet.OCCLUDED);
+                    hidden++;
+                }
+                visibility.putColumn(x, z, false);
+                visibility.addCounts(hidden, hidden);
+            }
+        }
+    }
+
+    private int getRegionTop(int shift, int regionX, int regionZ) {
+        long key = regionKey(shift, regionX, regionZ);
+        int top = regionTops.get(key);
+        if (top != NO_TOP) {
+            return top;
+        }
+
+        top = minSection - 1;
+        if (shift == COLUMN_SHIFT) {
+            for (int sectionY = maxSection - 1; sectionY >= minSection; sectionY--) {
+                if (opacityStore.getSectionState(SectionPos.asLong(regionX, sectionY, regionZ)) != SectionOpacityStore.EMPTY) {
+                    top = sectionY;
+                    break;
+                }
+            }
+        } else {
+            int childShift = CHILD_SHIFT[shift];
+            int childSpan = 1 << (shift - childShift);
+            for (int x = 0; x < childSpan; x++) {
+                for (int z = 0; z < childSpan; z++) {
+                    top = Math.max(top, getRegionTop(childShift, regionX * childSpan + x, regionZ * childSpan + z));
+                }
+            }
+        }
+
+        regionTops.put(key, top);
+        return top;
+    }
+
+    private static long regionKey(int shift, int regionX, int regionZ) {
+        return ((long) shift << 58) | ((regionX & 0x1FFFFFFFL) << 29) | (regionZ & 0x1FFFFFFFL);
+    }
+}
@@ -1,102 +1,109 @@
 package com.tejas.icedtea.culling;
 
-import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
-import net.minecraft.world.level.ChunkPos;
-import java.util.concurrent.ConcurrentHashMap;
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+import net.minecraft.core.SectionPos;
+import java.util.function.LongPredicate;
 
 public class RenderCacheSystem {
-    private static final long CACHE_VALIDITY_MS = 150;
-    private static final int MAX_CACHE_SIZE = 4096;
+    public static final int UNKNOWN = -1;
+    public static final int HIDDEN = 0;
+    public static final int RENDERED = 1;
+
+    private static final int MAX_AGE_FRAMES = 300;
+    private static final int MIN_CACHE_SIZE = 4096;
+    private static final int SWEEP_INTERVAL = 64;
     
-    private final ConcurrentHashMap<ChunkPos, CachedRenderData> renderCache;
-    private final ConcurrentHashMap<ChunkPos, Long> lastModificationTime;
+    private final ConcurrentLongIntMap renderCache;
+    private final CullingStageStats stats;
+    private volatile int currentEpoch;
+    private int capacity = MIN_CACHE_SIZE;
+    private int framesSinceSweep;
     
-    public RenderCacheSystem() {
-        this.renderCache = new ConcurrentHashMap<>(1024);
-        this.lastModificationTime = new ConcurrentHashMap<>(1024);
+    public RenderCacheSystem(CullingStageStats stats) {
+        this.renderCache = new ConcurrentLongIntMap(1024, UNKNOWN);
+        this.stats = stats;
     }
     
-    public boolean hasValidCache(ChunkPos pos) {
-        CachedRenderData data = renderCache.get(pos);
-        if (data == null) return false;
+    public void beginFrame(long frameId, int renderDistance, int sectionHeight) {
+        currentEpoch = (int) (frameId & 0x3FFFFFFF);
+        int width = renderDistance * 2 + 1;
+        capacity = Math.max(MIN_CACHE_SIZE, width * width * sectionHeight * 5 / 4);
         
-        Long lastMod = lastModificationTime.get(pos);
-        if (lastMod != null && System.currentTimeMillis() - lastMod < 100) {
-            return false;
+        if (++framesSinceSweep >= SWEEP_INTERVAL || renderCache.size() > capacity) {
+            framesSinceSweep = 0;
+            evictOldEntries();
         }
-        
-        return !data.isExpired();
     }
     
-    public void cacheChunkRender(ChunkPos pos, boolean rendered, double distance) {
-        if (renderCache.size() >= MAX_CACHE_SIZE) {
-            evictOldEntries();
+    public int lookup(long sectionKey) {
+        int entry = renderCache.get(sectionKey);
+        if (entry == UNKNOWN) {
+            stats.recordMiss(CullingStageStats.Stage.RENDER_CACHE);
+            return UNKNOWN;
+        }
+        if (isExpired(entry, currentEpoch)) {
+            stats.recordStale(CullingStageStats.Stage.RENDER_CACHE);
+            return UNKNOWN;
         }
         
-        renderCache.put(pos, new CachedRenderData(rendered, distance));
+        stats.recordHit(CullingStageStats.Stage.RENDER_CACHE);
+        return entry & 1;
     }
     
-    public boolean shouldRenderCached(ChunkPos pos) {
-        CachedRenderData data = renderCache.get(pos);
-        return data != null && data.wasRendered;
+    public void cacheChunkRender(long sectionKey, boolean rendered) {
+        renderCache.put(sectionKey, (currentEpoch << 1) | (rendered ? RENDERED : HIDDEN));
     }
     
-    public void invalidateChunk(ChunkPos pos) {
-        renderCache.remove(pos);
-        lastModificationTime.put(pos, System.currentTimeMillis());
+    public void invalidateSection(long sectionKey) {
+        renderCache.remove(sectionKey);
     }
     
-    public void invalidateArea(ChunkPos center, int radius) {
-        long now = System.currentTimeMillis();
+    public void invalidateArea(long centerSectionKey, int radius) {
+        int centerX = SectionPos.x(centerSectionKey);
+        int centerY = SectionPos.y(centerSectionKey);
+        int centerZ = SectionPos.z(centerSectionKey);
         for (int x = -radius; x <= radius; x++) {
-            for (int z = -radius; z <= radius; z++) {
-                ChunkPos pos = new ChunkPos(center.x + x, center.z + z);
-                renderCache.remove(pos);
-                lastModificationTime.put(pos, now);
+            for (int y = -radius; y <= radius; y++) {
+                for (int z = -radius; z <= radius; z++) {
+                    renderCache.remove(SectionPos.asLong(centerX + x, centerY + y, centerZ + z));
+                }
             }
         }
     }
     
+    public void invalidateIf(LongPredicate predicate) {
+        renderCache.removeIf((key, entry) -> predicate.test(key));
+    }
+    
     public void clear() {
         renderCache.clear();
-        lastModificationTime.clear();
     }
     
     private void evictOldEntries() {
-        long now = System.currentTimeMillis();
-        renderCache.entrySet().removeIf(entry -> 
-            now - entry.getValue().timestamp > CACHE_VALIDITY_MS * 2
-        );
+        int epoch = currentEpoch;
+        int maxAge = MAX_AGE_FRAMES;
+        renderCache.removeIf((key, entry) -> age(entry, epoch) > MAX_AGE_FRAMES);
         
-        if (renderCache.size() > MAX_CACHE_SIZE * 0.75) {
-            lastModificationTime.entrySet().removeIf(entry ->
-                now - entry.getValue() > 5000
-            );
+        while (renderCache.size() > capacity && maxAge > 1) {
+            maxAge /= 2;
+            int limit = maxAge;
+            renderCache.removeIf((key, entry) -> age(entry, epoch) > limit);
         }
     }
     
+    private static boolean isExpired(int entry, int epoch) {
+        return age(entry, epoch) > MAX_AGE_FRAMES;
+    }
+    
+    private static int age(int entry, int epoch) {
+        return (epoch - (entry >>> 1)) & 0x3FFFFFFF;
+    }
+    
     public int getCacheSize() {
         return renderCache.size();
     }
     
     public double getCacheHitRate() {
-        return renderCache.size() > 0 ? 
-            (double) renderCache.values().stream().filter(d -> !d.isExpired()).count() / renderCache.size() * 100.0 : 0.0;
-    }
-    
-    private static class CachedRenderData {
-        final boolean wasRendered;
-        final double distance;
-        final long timestamp;
-        
-        CachedRenderData(boolean wasRendered, double distance) {
-            this.wasRendered = wasRendered;
-            this.distance = distance;
-            this.timestamp = System.currentTimeMillis();
-        }
-        
-        boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_VALIDITY_MS;
-        }
+        return stats.getHitRate(CullingStageStats.Stage.RENDER_CACHE);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,162 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.IcedTeaMod;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import net.minecraft.client.renderer.chunk.RenderRegionCache;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+public class SectionCompileScheduler {
+    private static final int MAX_DEFERRED = 512;
+    private static final int MAX_DEFER_FRAMES = 200;
+
+    private final List<ChunkRenderDispatcher.RenderChunk> visibleRebuilds = new ArrayList<>();
+    private final List<ChunkRenderDispatcher.RenderChunk> untestedRebuilds = new ArrayList<>();
+    private final ArrayDeque<DeferredRebuild> deferred = new ArrayDeque<>();
+    private final Set<ChunkRenderDispatcher.RenderChunk> deferredChunks =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private ChunkRenderDispatcher dispatcher;
+    private RenderRegionCache regionCache;
+    private long frame;
+
+    public void schedule(ChunkRenderDispatcher.RenderChunk chunk, ChunkRenderDispatcher dispatcher,
+                         RenderRegionCache regionCache, int state) {
+        this.dispatcher = dispatcher;
+        this.regionCache = regionCache;
+
+        if (state != VisibilitySet.OCCLUDED) {
+            deferredChunks.remove(chunk);
+        }
+
+        if (state == VisibilitySet.VISIBLE || state == VisibilitySet.LIKELY_OCCLUDED) {
+            visibleRebuilds.add(chunk);
+        } else if (state != VisibilitySet.OCCLUDED) {
+            untestedRebuilds.add(chunk);
+        } else if (deferredChunks.add(chunk)) {
+            deferred.addLast(new DeferredRebuild(chunk, frame, false));
+        }
+    }
+
+    public void deferOccluded(ChunkRenderDispatcher.RenderChunk chunk, ChunkRenderDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        if (deferredChunks.add(chunk)) {
+            deferred.addLast(new DeferredRebuild(chunk, frame, true));
+        }
+    }
+
+    public void flush(OcclusionCullingSystem cullingSystem) {
+        frame++;
+        if (dispatcher == null) {
+            return;
+        }
+
+        for (ChunkRenderDispatcher.RenderChunk chunk : visibleRebuilds) {
+            rebuild(chunk, regionCache);
+        }
+        for (ChunkRenderDispatcher.RenderChunk chunk : untestedRebuilds) {
+            rebuild(chunk, regionCache);
+        }
+        visibleRebuilds.clear();
+        untestedRebuilds.clear();
+        regionCache = null;
+
+        if (deferred.isEmpty()) {
+            return;
+        }
+
+        RenderRegionCache deferredCache = new RenderRegionCache();
+        int released = 0;
+        Iterator<DeferredRebuild> iterator = deferred.iterator();
+        while (iterator.hasNext()) {
+            DeferredRebuild entry = iterator.next();
+            if (!deferredChunks.contains(entry.chunk)) {
+                iterator.remove();
+                continue;
+            }
+            boolean overflow = deferred.size() > MAX_DEFERRED;
+            boolean expired = frame - entry.frame > MAX_DEFER_FRAMES;
+            if (!overflow && !expired && getState(cullingSystem, entry.chunk) == VisibilitySet.OCCLUDED) {
+                continue;
+            }
+
+            iterator.remove();
+            deferredChunks.remove(entry.chunk);
+            if (cullingSystem.getSectionEvictor().isEvicted(sectionKeyOf(entry.chunk))) {
+                continue;
+            }
+            if (entry.stillDirty) {
+                if (!entry.chunk.isDirty()) {
+                    continue;
+                }
+                entry.chunk.setNotDirty();
+            }
+            rebuild(entry.chunk, deferredCache);
+            released++;
+        }
+
+        if (IcedTeaMod.isDebugMode() && released > 0) {
+            IcedTeaMod.LOGGER.info("[IcedTea][COMPILE] Released {} deferred rebuilds, {} still deferred",
+                released, deferred.size());
+        }
+    }
+
+    public int getDeferredCount() {
+        return deferred.size();
+    }
+
+    public void clear() {
+        visibleRebuilds.clear();
+        untestedRebuilds.clear();
+        deferred.clear();
+        deferredChunks.clear();
+        dispatcher = null;
+        regionCache = null;
+    }
+
+    private void rebuild(ChunkRenderDispatcher.RenderChunk chunk, RenderRegionCache cache) {
+        try {
+            chunk.rebuildChunkAsync(dispatcher, cache);
+        } catch (Exception e) {
+            IcedTeaMod.LOGGER.error("Error scheduling section rebuild", e);
+        }
+    }
+
+    private static int getState(OcclusionCullingSystem cullingSystem, ChunkRenderDispatcher.RenderChunk chunk) {
+        BlockPos origin = chunk.getOrigin();
+        return cullingSystem.getSectionState(
+            SectionPos.blockToSectionCoord(origin.getX()),
+            SectionPos.blockToSectionCoord(origin.getY()),
+            SectionPos.blockToSectionCoord(origin.getZ())
+        );
+    }
+
+    private static long sectionKeyOf(ChunkRenderDispatcher.RenderChunk chunk) {
+        BlockPos origin = chunk.getOrigin();
+        return SectionPos.asLong(
+            SectionPos.blockToSectionCoord(origin.getX()),
+            SectionPos.blockToSectionCoord(origin.getY()),
+            SectionPos.blockToSectionCoord(origin.getZ())
+        );
+    }
+
+    private static class DeferredRebuild {
+        final ChunkRenderDispatcher.RenderChunk chunk;
+        final long frame;
+        final boolean stillDirty;
+
+        DeferredRebuild(ChunkRenderDispatcher.RenderChunk chunk, long frame, boolean stillDirty) {
+            this.chunk = chunk;
+            this.frame = frame;
+            this.stillDirty = stillDirty;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.tejas.icedtea.culling;
+
+public final class SectionConnectivity {
+    public static final int FACE_COUNT = 6;
+    public static final int DOWN = 0;
+    public static final int UP = 1;
+    public static final int NORTH = 2;
+    public static final int SOUTH = 3;
+    public static final int WEST = 4;
+    public static final int EAST = 5;
+
+    public static final int NONE = 0;
+    public static final int ALL = (1 << 15) - 1;
+
+    public static final int[] STEP_X = { 0, 0, 0, 0, -1, 1 };
+    public static final int[] STEP_Y = { -1, 1, 0, 0, 0, 0 };
+    public static final int[] STEP_Z = { 0, 0, -1, 1, 0, 0 };
+
+    private static final int[][] PAIR_BITS = new int[FACE_COUNT][FACE_COUNT];
+
+    static {
+        int bit = 0;
+        for (int a = 0; a < FACE_COUNT; a++) {
+            for (int b = a + 1; b < FACE_COUNT; b++) {
+                PAIR_BITS[a][b] = 1 << bit;
+                PAIR_BITS[b][a] = 1 << bit;
+                bit++;
+            }
+        }
+    }
+
+    private SectionConnectivity() {
+    }
+
+    public static int opposite(int face) {
+        return face ^ 1;
+    }
+
+    public static boolean isConnected(int connectivity, int from, int to) {
+        return from != to && (connectivity & PAIR_BITS[from][to]) != 0;
+    }
+
+    public static int compute(long[] opaqueMask) {
+        long[] visited = opaqueMask.clone();
+        int[] queue = new int[4096];
+        int connectivity = NONE;
+
+        for (int start = 0; start < 4096; start++) {
+            if (!isBoundary(start) || isSet(visited, start)) continue;
+
+            int faces = 0;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            visited[start >>> 6] |= 1L << (start & 63);
+
+            while (head < tail) {
+                int cell = queue[head++];
+                int x = cell & 15;
+                int z = (cell >>> 4) & 15;
+                int y = cell >>> 8;
+
+                if (y == 0) faces |= 1 << DOWN;
+                if (y == 15) faces |= 1 << UP;
+                if (z == 0) faces |= 1 << NORTH;
+                if (z == 15) faces |= 1 << SOUTH;
+                if (x == 0) faces |= 1 << WEST;
+                if (x == 15) faces |= 1 << EAST;
+
+                if (x > 0) tail = visit(visited, queue, tail, cell - 1);
+                if (x < 15) tail = visit(visited, queue, tail, cell + 1);
+                if (z > 0) tail = visit(visited, queue, tail, cell - 16);
+                if (z < 15) tail = visit(visited, queue, tail, cell + 16);
+                if (y > 0) tail = visit(visited, queue, tail, cell - 256);
+                if (y < 15) tail = visit(visited, queue, tail, cell + 256);
+            }
+
+            connectivity |= pairsOf(faces);
+            if (connectivity == ALL) break;
+        }
+
+        return connectivity;
+    }
+
+    private static int pairsOf(int faces) {
+        int pairs = 0;
+        for (int a = 0; a < FACE_COUNT; a++) {
+            if ((faces & (1 << a)) == 0) continue;
+            for (int b = a + 1; b < FACE_COUNT; b++) {
+                if ((faces & (1 << b)) != 0) {
+                    pairs |= PAIR_BITS[a][b];
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static int visit(long[] visited, int[] queue, int tail, int cell) {
+        long bit = 1L << (cell & 63);
+        if ((visited[cell >>> 6] & bit) != 0) return tail;
+        visited[cell >>> 6] |= bit;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+    private static boolean isSet(long[] mask, int cell) {
+        return (mask[cell >>> 6] & (1L << (cell & 63))) != 0;
+    }
+
+    private static boolean isBoundary(int cell) {
+        int x = cell & 15;
+        int z = (cell >>> 4) & 15;
+        int y = cell >>> 8;
+        return x == 0 || x == 15 || y == 0 || y == 15 || z == 0 || z == 15;
+    }
+}
@@ -0,0 +1,313 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.IcedTeaMod;
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+import com.tejas.icedtea.util.ThreadPoolManager;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+public class SectionDataTracker {
+    private static final int NO_TICKET = 0;
+
+    private final SectionOpacityStore opacityStore;
+    private final SectionOpacityStore solidStore;
+    private final ConcurrentLongIntMap pendingBuilds;
+    private final ConcurrentLongIntMap connectivity;
+    private final ConcurrentLongIntMap dirtyConnectivity;
+    private final AtomicInteger ticketCounter = new AtomicInteger(0);
+    private final AtomicInteger connectivityVersion = new AtomicInteger(0);
+    private final AtomicBoolean connectivityRebuildQueued = new AtomicBoolean(false);
+
+    private ClientLevel trackedLevel;
+    private volatile LongConsumer changeListener;
+    private volatile long windowCenterKey;
+    private volatile int windowRadius = -1;
+
+    public SectionDataTracker() {
+        this.opacityStore = new SectionOpacityStore();
+        this.solidStore = new SectionOpacityStore();
+        this.pendingBuilds = new ConcurrentLongIntMap(1024, NO_TICKET);
+        this.connectivity = new ConcurrentLongIntMap(8192, SectionConnectivity.ALL);
+        this.dirtyConnectivity = new ConcurrentLongIntMap(64, 0);
+    }
+
+    public void onChunkLoad(ClientLevel level, LevelChunk chunk) {
+        if (level != trackedLevel) {
+            clear();
+            trackedLevel = level;
+        }
+
+        int chunkX = chunk.getPos().x;
+        int chunkZ = chunk.getPos().z;
+        LevelChunkSection[] sections = chunk.getSections();
+
+        long[] keys = new long[sections.length];
+        int[] tickets = new int[sections.length];
+        @SuppressWarnings("unchecked")
+        PalettedContainer<BlockState>[] snapshots = new PalettedContainer[sections.length];
+        int pending = 0;
+
+        for (int i = 0; i < sections.length; i++) {
+            long key = SectionPos.asLong(chunkX, level.getSectionYFromSectionIndex(i), chunkZ);
+            LevelChunkSection section = sections[i];
+
+            if (section == null || section.hasOnlyAir()) {
+                pendingBuilds.remove(key);
+                opacityStore.putEmpty(key);
+                solidStore.putEmpty(key);
+                updateConnectivity(key, SectionConnectivity.ALL);
+                notifyChanged(key);
+                continue;
+            }
+
+            int ticket = nextTicket();
+            pendingBuilds.put(key, ticket);
+            keys[pending] = key;
+            tickets[pending] = ticket;
+            snapshots[pending] = section.getStates().copy();
+            pending++;
+        }
+
+        if (pending > 0) {
+            int count = pending;
+            ThreadPoolManager.execute(() -> buildSections(keys, tickets, snapshots, count));
+        }
+    }
+
+    public void onChunkUnload(ClientLevel level, LevelChunk chunk) {
+        if (level != trackedLevel) return;
+
+        int chunkX = chunk.getPos().x;
+        int chunkZ = chunk.getPos().z;
+        boolean changed = false;
+        for (int sectionY = level.getMinSection(); sectionY < level.getMaxSection(); sectionY++) {
+            long key = SectionPos.asLong(chunkX, sectionY, chunkZ);
+            pendingBuilds.remove(key);
+            opacityStore.removeSection(key);
+            solidStore.removeSection(key);
+            changed |= connectivity.remove(key) != SectionConnectivity.ALL;
+        }
+        if (changed && isInWindow(chunkX, chunkZ)) {
+            connectivityVersion.incrementAndGet();
+        }
+    }
+
+    public void onBlockChanged(BlockPos pos, BlockState newState) {
+        long key = SectionPos.asLong(
+            SectionPos.blockToSectionCoord(pos.getX()),
+            SectionPos.blockToSectionCoord(pos.getY()),
+            SectionPos.blockToSectionCoord(pos.getZ())
+        );
+
+        if (pendingBuilds.containsKey(key)) {
+            resnapshotSection(key);
+            return;
+        }
+
+        boolean opacityChanged = opacityStore.setBlock(key, pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15,
+            VoxelTraversal.isFullOpaque(newState));
+        boolean solidityChanged = solidStore.setBlock(key, pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15,
+            !newState.isAir());
+        if (!opacityChanged && !solidityChanged) {
+            return;
+        }
+        queueConnectivityRebuild(key);
+        notifyChanged(key);
+    }
+
+    public void setChangeListener(LongConsumer listener) {
+        this.changeListener = listener;
+    }
+
+    public SectionOpacityStore getOpacityStore() {
+        return opacityStore;
+    }
+
+    public SectionOpacityStore getSolidStore() {
+        return solidStore;
+    }
+
+    public int getConnectivity(long sectionKey) {
+        return connectivity.get(sectionKey);
+    }
+
+    public void setTrackingWindow(long cameraSectionKey, int radius) {
+        windowCenterKey = cameraSectionKey;
+        windowRadius = radius;
+    }
+
+    public int getConnectivityVersion() {
+        return connectivityVersion.get();
+    }
+
+    public void clear() {
+        pendingBuilds.clear();
+        opacityStore.clear();
+        solidStore.clear();
+        connectivity.clear();
+        dirtyConnectivity.clear();
+        connectivityVersion.incrementAndGet();
+    }
+
+    private void updateConnectivity(long key, int bits) {
+        if (connectivity.put(key, bits) != bits && isInWindow(SectionPos.x(key), SectionPos.z(key))) {
+            connectivityVersion.incrementAndGet();
+        }
+    }
+
+    private boolean isInWindow(int chunkX, int chunkZ) {
+        int radius = windowRadius;
+        if (radius < 0) return true;
+        long center = windowCenterKey;
+        return Math.abs(chunkX - SectionPos.x(center)) <= radius
+            && Math.abs(chunkZ - SectionPos.z(center)) <= radius;
+    }
+
+    private void notifyChanged(long key) {
+        LongConsumer listener = changeListener;
+        if (listener != null) {
+            listener.accept(key);
+        }
+    }
+
+    private void queueConnectivityRebuild(long key) {
+        dirtyConnectivity.put(key, 1);
+        if (connectivityRebuildQueued.compareAndSet(false, true)) {
+            ThreadPoolManager.execute(this::rebuildDirtyConnectivity);
+        }
+    }
+
+    private void rebuildDirtyConnectivity() {
+        connectivityRebuildQueued.set(false);
+        LongArrayList keys = new LongArrayList();
+        dirtyConnectivity.forEach((key, value) -> keys.add(key));
+
+        long[] mask = new long[SectionOpacityStore.WORDS_PER_SECTION];
+        try {
+            for (int i = 0; i < keys.size(); i++) {
+                long key = keys.getLong(i);
+                dirtyConnectivity.remove(key);
+
+                int state = opacityStore.copyMask(key, mask);
+                if (state == SectionOpacityStore.EMPTY) {
+                    updateConnectivity(key, SectionConnectivity.ALL);
+                } else if (state == SectionOpacityStore.FULL) {
+                    updateConnectivity(key, SectionConnectivity.NONE);
+                } else if (state >= 0) {
+                    updateConnectivity(key, SectionConnectivity.compute(mask));
+                }
+            }
+        } catch (Exception e) {
+            IcedTeaMod.LOGGER.error("Error rebuilding section connectivity", e);
+        }
+    }
+
+    private void resnapshotSection(long key) {
+        ClientLevel level = trackedLevel;
+        if (level == null) return;
+
+        int sectionX = SectionPos.x(key);
+        int sectionZ = SectionPos.z(key);
+        if (!level.hasChunk(sectionX, sectionZ)) return;
+
+        LevelChunk chunk = level.getChunk(sectionX, sectionZ);
+        LevelChunkSection section = chunk.getSection(level.getSectionIndexFromSectionY(SectionPos.y(key)));
+        if (section == null || section.hasOnlyAir()) {
+            pendingBuilds.remove(key);
+            opacityStore.putEmpty(key);
+            solidStore.putEmpty(key);
+            updateConnectivity(key, SectionConnectivity.ALL);
+            notifyChanged(key);
+            return;
+        }
+
+        int ticket = nextTicket();
+        pendingBuilds.put(key, ticket);
+        @SuppressWarnings("unchecked")
+        PalettedContainer<BlockState>[] snapshot = new PalettedContainer[] { section.getStates().copy() };
+        ThreadPoolManager.execute(() -> buildSections(new long[] { key }, new int[] { ticket }, snapshot, 1));
+    }
+
+    private void buildSections(long[] keys, int[] tickets, PalettedContainer<BlockState>[] snapshots, int count) {
+        long[] mask = new long[SectionOpacityStore.WORDS_PER_SECTION];
+        long[] solidMask = new long[SectionOpacityStore.WORDS_PER_SECTION];
+        try {
+            for (int i = 0; i < count; i++) {
+                if (pendingBuilds.get(keys[i]) != tickets[i]) continue;
+
+                int opaqueCount = buildMask(snapshots[i], mask, solidMask);
+                int solidCount = 0;
+                for (long word : solidMask) {
+                    solidCount += Long.bitCount(word);
+                }
+                int bits = opaqueCount == 0 ? SectionConnectivity.ALL
+                    : opaqueCount == 4096 ? SectionConnectivity.NONE
+                    : SectionConnectivity.compute(mask);
+
+                synchronized (opacityStore) {
+                    if (pendingBuilds.get(keys[i]) != tickets[i]) continue;
+                    opacityStore.putSection(keys[i], mask, opaqueCount);
+                    solidStore.putSection(keys[i], solidMask, solidCount);
+                    pendingBuilds.remove(keys[i]);
+                }
+                updateConnectivity(keys[i], bits);
+                notifyChanged(keys[i]);
+            }
+        } catch (Exception e) {
+            IcedTeaMod.LOGGER.error("Error building section opacity snapshot", e);
+        }
+    }
+
+    private static int buildMask(PalettedContainer<BlockState> states, long[] mask, long[] solidMask) {
+        BlockState lastState = null;
+        boolean lastOpaque = false;
+        boolean lastSolid = false;
+        int opaqueCount = 0;
+
+        for (int i = 0; i < mask.length; i++) {
+            mask[i] = 0L;
+            solidMask[i] = 0L;
+        }
+
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    BlockState state = states.get(x, y, z);
+                    if (state != lastState) {
+                        lastState = state;
+                        lastOpaque = VoxelTraversal.isFullOpaque(state);
+                        lastSolid = !state.isAir();
+                    }
+                    int bit = (y << 8) | (z << 4) | x;
+                    if (lastOpaque) {
+                        mask[bit >>> 6] |= 1L << (bit & 63);
+                        opaqueCount++;
+                    }
+                    if (lastSolid) {
+                        solidMask[bit >>> 6] |= 1L << (bit & 63);
+                    }
+                }
+            }
+        }
+
+        return opaqueCount;
+    }
+
+    private int nextTicket() {
+        int ticket = ticketCounter.incrementAndGet();
+        if (ticket == NO_TICKET) {
+            ticket = ticketCounter.incrementAndGet();
+        }
+        return ticket;
+    }
+}
@@ -0,0 +1,240 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LightLayer;
+import net.minecraft.world.level.chunk.DataLayer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SectionExposure {
+    public static final int UNKNOWN = -1;
+    public static final int BURIED = 0;
+    public static final int CONNECTED = 1;
+    public static final int SURFACE = 2;
+
+    private static final int CLASS_MASK = 3;
+    private static final int SKY_COLUMNS_SHIFT = 2;
+    private static final int AIR_COUNT_SHIFT = 11;
+    private static final int MAX_REACH_VISITS = 256;
+    private static final int NO_FACE = -1;
+    private static final int NOT_CACHED = -1;
+
+    private final SectionDataTracker sectionTracker;
+    private final ConcurrentLongIntMap stats = new ConcurrentLongIntMap(8192, UNKNOWN);
+    private final ConcurrentLongIntMap reachability = new ConcurrentLongIntMap(4096, NOT_CACHED);
+    private final AtomicInteger reachGeneration = new AtomicInteger(0);
+    private int clearedGeneration;
+    private long reachCameraKey = Long.MIN_VALUE;
+
+    public SectionExposure(SectionDataTracker sectionTracker) {
+        this.sectionTracker = sectionTracker;
+    }
+
+    public int getExposure(Level level, long sectionKey) {
+        int packed = getStats(level, sectionKey);
+        return packed == UNKNOWN ? UNKNOWN : packed & CLASS_MASK;
+    }
+
+    public int getAirCount(Level level, long sectionKey) {
+        int packed = getStats(level, sectionKey);
+        return packed == UNKNOWN ? -1 : packed >>> AIR_COUNT_SHIFT;
+    }
+
+    public int getSkyColumns(Level level, long sectionKey) {
+        int packed = getStats(level, sectionKey);
+        return packed == UNKNOWN ? -1 : (packed >>> SKY_COLUMNS_SHIFT) & 511;
+    }
+
+    public boolean isEnclosedBy(Level level, long sectionKey, int exposure) {
+        if (getExposure(level, sectionKey) != exposure) {
+            return false;
+        }
+
+        int x = SectionPos.x(sectionKey);
+        int y = SectionPos.y(sectionKey);
+        int z = SectionPos.z(sectionKey);
+        for (int face = 0; face < SectionConnectivity.FACE_COUNT; face++) {
+            int neighborY = y + SectionConnectivity.STEP_Y[face];
+            if (neighborY < level.getMinSection() || neighborY >= level.getMaxSection()) {
+                if (exposure == BURIED) continue;
+                return false;
+            }
+
+            long neighbor = SectionPos.asLong(
+                x + SectionConnectivity.STEP_X[face], neighborY, z + SectionConnectivity.STEP_Z[face]);
+            if (getExposure(level, neighbor) != exposure) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void beginPass(long cameraSectionKey) {
+        if (cameraSectionKey != reachCameraKey) {
+            reachCameraKey = cameraSectionKey;
+            reachGeneration.incrementAndGet();
+        }
+        int generation = reachGeneration.get();
+        if (generation != clearedGeneration) {
+            clearedGeneration = generation;
+            reachability.clear();
+        }
+    }
+
+    public boolean isReachableFromExposed(Level level, long sectionKey, long cameraSectionKey, Walk walk) {
+        int generation = reachGeneration.get();
+        int cached = reachability.get(sectionKey);
+        if (cached != NOT_CACHED && cached >>> 1 == generation) {
+            return (cached & 1) != 0;
+        }
+
+        boolean reachable = walk(level, sectionKey, cameraSectionKey, walk);
+        reachability.put(sectionKey, (generation << 1) | (reachable ? 1 : 0));
+        return reachable;
+    }
+
+    private boolean walk(Level level, long sectionKey, long cameraSectionKey, Walk walk) {
+        int cameraX = SectionPos.x(cameraSectionKey);
+        int cameraY = SectionPos.y(cameraSectionKey);
+        int cameraZ = SectionPos.z(cameraSectionKey);
+
+        walk.reset();
+        LongOpenHashSet[] visited = walk.visited;
+        LongArrayList queue = walk.queue;
+        IntArrayList entryFaces = walk.entryFaces;
+        queue.add(sectionKey);
+        entryFaces.add(NO_FACE);
+
+        for (int head = 0; head < queue.size(); head++) {
+            if (head >= MAX_REACH_VISITS) {
+                return true;
+            }
+
+            long key = queue.getLong(head);
+            int entry = entryFaces.getInt(head);
+            int x = SectionPos.x(key);
+            int y = SectionPos.y(key);
+            int z = SectionPos.z(key);
+            int connectivity = sectionTracker.getConnectivity(key);
+
+            for (int face = 0; face < SectionConnectivity.FACE_COUNT; face++) {
+                int stepX = SectionConnectivity.STEP_X[face];
+                int stepY = SectionConnectivity.STEP_Y[face];
+                int stepZ = SectionConnectivity.STEP_Z[face];
+                if (stepX * (cameraX - x) <= 0 && stepY * (cameraY - y) <= 0 && stepZ * (cameraZ - z) <= 0) continue;
+                if (entry != NO_FACE && !SectionConnectivity.isConnected(connectivity, entry, face)) continue;
+
+                int neighborY = y + stepY;
+                if (neighborY < level.getMinSection() || neighborY >= level.getMaxSection()) continue;
+
+                long neighbor = SectionPos.asLong(x + stepX, neighborY, z + stepZ);
+                int neighborEntry = SectionConnectivity.opposite(face);
+                if (!visited[neighborEntry].add(neighbor)) continue;
+
+                if (getExposure(level, neighbor) != BURIED) {
+                    return true;
+                }
+                queue.add(neighbor);
+                entryFaces.add(neighborEntry);
+            }
+        }
+        return false;
+    }
+
+    public void invalidate(long sectionKey) {
+        stats.remove(sectionKey);
+        reachGeneration.incrementAndGet();
+    }
+
+    public void clear() {
+        stats.clear();
+        reachability.clear();
+        reachGeneration.incrementAndGet();
+    }
+
+    private int getStats(Level level, long sectionKey) {
+        int packed = stats.get(sectionKey);
+        if (packed == UNKNOWN) {
+            packed = compute(level, sectionKey);
+            if (packed != UNKNOWN) {
+                stats.put(sectionKey, packed);
+            }
+        }
+        return packed;
+    }
+
+    private int compute(Level level, long sectionKey) {
+        SectionOpacityStore solidStore = sectionTracker.getSolidStore();
+        long[] solidMask = new long[SectionOpacityStore.WORDS_PER_SECTION];
+        int solidState = solidStore.copyMask(sectionKey, solidMask);
+        if (solidState == SectionOpacityStore.MISSING) {
+            return UNKNOWN;
+        }
+        if (solidState == SectionOpacityStore.FULL) {
+            return pack(BURIED, 0, 0);
+        }
+
+        DataLayer skyLight = level.getLightEngine().getLayerListener(LightLayer.SKY)
+            .getDataLayerData(SectionPos.of(sectionKey));
+        if (skyLight == null) {
+            return pack(CONNECTED, 0, 0);
+        }
+
+        int airCount = 0;
+        boolean lit = false;
+        long[] skyColumns = new long[4];
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (solidState >= 0 && SectionOpacityStore.isOpaque(solidMask, x, y, z)) continue;
+
+                    airCount++;
+                    int light = skyLight.get(x, y, z);
+                    if (light > 0) {
+                        lit = true;
+                        if (light == 15) {
+                            int column = (z << 4) | x;
+                            skyColumns[column >>> 6] |= 1L << (column & 63);
+                        }
+                    }
+                }
+            }
+        }
+
+        int exposedColumns = 0;
+        for (long word : skyColumns) {
+            exposedColumns += Long.bitCount(word);
+        }
+        int exposure = exposedColumns > 0 ? SURFACE : lit ? CONNECTED : BURIED;
+        return pack(exposure, exposedColumns, airCount);
+    }
+
+    private static int pack(int exposure, int skyColumns, int airCount) {
+        return exposure | (skyColumns << SKY_COLUMNS_SHIFT) | (airCount << AIR_COUNT_SHIFT);
+    }
+
+    public static final class Walk {
+        final LongOpenHashSet[] visited = new LongOpenHashSet[SectionConnectivity.FACE_COUNT];
+        final LongArrayList queue = new LongArrayList();
+        final IntArrayList entryFaces = new IntArrayList();
+
+        public Walk() {
+            for (int face = 0; face < SectionConnectivity.FACE_COUNT; face++) {
+                visited[face] = new LongOpenHashSet();
+            }
+        }
+
+        void reset() {
+            for (LongOpenHashSet set : visited) {
+                set.clear();
+            }
+            queue.clear();
+            entryFaces.clear();
+        }
+    }
+}
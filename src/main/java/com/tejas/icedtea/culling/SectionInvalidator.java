@@ -0,0 +1,109 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.SectionPos;
+
+public class SectionInvalidator {
+    private static final double HALF_SECTION = 8.0;
+    private static final int MAX_DIRTY_SECTIONS = 64;
+
+    private final ConcurrentLongIntMap dirtySections = new ConcurrentLongIntMap(64, 0);
+    private final LongArrayList changed = new LongArrayList();
+    private long cameraSectionKey = Long.MAX_VALUE;
+    private boolean invalidateAll;
+
+    public void onSectionChanged(long sectionKey) {
+        dirtySections.put(sectionKey, 1);
+    }
+
+    public boolean hasPendingChanges() {
+        return dirtySections.size() > 0;
+    }
+
+    public boolean beginPass(long cameraSectionKey) {
+        changed.clear();
+        invalidateAll = false;
+
+        if (cameraSectionKey != this.cameraSectionKey) {
+            this.cameraSectionKey = cameraSectionKey;
+            dirtySections.clear();
+            invalidateAll = true;
+            return true;
+        }
+
+        int dirtyCount = dirtySections.size();
+        if (dirtyCount == 0) {
+            return false;
+        }
+
+        dirtySections.forEach((key, value) -> changed.add(key));
+        for (int i = 0; i < changed.size(); i++) {
+            dirtySections.remove(changed.getLong(i));
+        }
+
+        if (changed.size() > MAX_DIRTY_SECTIONS) {
+            changed.clear();
+            invalidateAll = true;
+        }
+        return true;
+    }
+
+    public boolean isInvalidateAll() {
+        return invalidateAll;
+    }
+
+    public boolean isAffected(long targetSectionKey) {
+        if (invalidateAll) return true;
+
+        double fromX = sectionCenter(SectionPos.x(cameraSectionKey));
+        double fromY = sectionCenter(SectionPos.y(cameraSectionKey));
+        double fromZ = sectionCenter(SectionPos.z(cameraSectionKey));
+        double toX = sectionCenter(SectionPos.x(targetSectionKey));
+        double toY = sectionCenter(SectionPos.y(targetSectionKey));
+        double toZ = sectionCenter(SectionPos.z(targetSectionKey));
+
+        for (int i = 0; i < changed.size(); i++) {
+            if (segmentTouchesSection(fromX, fromY, fromZ, toX, toY, toZ, changed.getLong(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clear() {
+        cameraSectionKey = Long.MAX_VALUE;
+        dirtySections.clear();
+        changed.clear();
+        invalidateAll = false;
+    }
+
+    private static double sectionCenter(int sectionCoord) {
+        return (sectionCoord << 4) + HALF_SECTION;
+    }
+
+    private static boolean segmentTouchesSection(double fromX, double fromY, double fromZ,
+                                                 double toX, double toY, double toZ, long sectionKey) {
+        double minX = (SectionPos.x(sectionKey) << 4) - HALF_SECTION;
+        double minY = (SectionPos.y(sectionKey) << 4) - HALF_SECTION;
+        double minZ = (SectionPos.z(sectionKey) << 4) - HALF_SECTION;
+        double size = 16 + HALF_SECTION * 2;
+
+        double[] range = { 0.0, 1.0 };
+        return clipAxis(fromX, toX - fromX, minX, minX + size, range)
+            && clipAxis(fromY, toY - fromY, minY, minY + size, range)
+            && clipAxis(fromZ, toZ - fromZ, minZ, minZ + size, range);
+    }
+
+    private static boolean clipAxis(double from, double delta, double min, double max, double[] range) {
+        if (Math.abs(delta) < 1.0E-9) {
+            return from >= min && from <= max;
+        }
+
+        double t1 = (min - from) / delta;
+        double t2 = (max - from) / delta;
+        range[0] = Math.max(range[0], Math.min(t1, t2));
+        range[1] = Math.min(range[1], Math.max(t1, t2));
+        return range[0] <= range[1];
+    }
+}
@@ -0,0 +1,207 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class SectionOpacityStore {
+    public static final int MISSING = -1;
+    public static final int EMPTY = -2;
+    public static final int FULL = -3;
+
+    public static final int WORDS_PER_SECTION = 64;
+    private static final int SECTION_BYTES = WORDS_PER_SECTION * Long.BYTES;
+    private static final int SLAB_SHIFT = 10;
+    private static final int SLOTS_PER_SLAB = 1 << SLAB_SHIFT;
+    private static final int MAX_READ_ATTEMPTS = 8;
+
+    private final ConcurrentLongIntMap index = new ConcurrentLongIntMap(8192, MISSING);
+    private volatile ByteBuffer[] slabs = new ByteBuffer[0];
+    private volatile AtomicIntegerArray[] sequences = new AtomicIntegerArray[0];
+    private int[] freeSlots = new int[256];
+    private int freeCount;
+    private int nextSlot;
+
+    public int getSectionState(long sectionKey) {
+        return index.get(sectionKey);
+    }
+
+    public static boolean isOpaque(long[] mask, int x, int y, int z) {
+        int bit = (y << 8) | (z << 4) | x;
+        return (mask[bit >>> 6] & (1L << (bit & 63))) != 0;
+    }
+
+    public int copyMask(long sectionKey, long[] dest) {
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            int state = index.get(sectionKey);
+            if (state < 0) {
+                return state;
+            }
+
+            AtomicIntegerArray slabSequences = sequences[state >>> SLAB_SHIFT];
+            int offset = state & (SLOTS_PER_SLAB - 1);
+            int sequence = slabSequences.get(offset);
+            if ((sequence & 1) == 0) {
+                readMask(state, dest);
+                VarHandle.loadLoadFence();
+                if (slabSequences.get(offset) == sequence && index.get(sectionKey) == state) {
+                    return state;
+                }
+            }
+            Thread.onSpinWait();
+        }
+
+        synchronized (this) {
+            int state = index.get(sectionKey);
+            if (state >= 0) {
+                readMask(state, dest);
+            }
+            return state;
+        }
+    }
+
+    public synchronized void putEmpty(long sectionKey) {
+        releaseSlot(index.put(sectionKey, EMPTY));
+    }
+
+    public synchronized void putSection(long sectionKey, long[] mask, int opaqueCount) {
+        if (opaqueCount == 0) {
+            putEmpty(sectionKey);
+            return;
+        }
+        if (opaqueCount == 4096) {
+            releaseSlot(index.put(sectionKey, FULL));
+            return;
+        }
+
+        int slot = index.get(sectionKey);
+        if (slot < 0) {
+            slot = allocateSlot();
+        }
+        writeMask(slot, mask);
+        index.put(sectionKey, slot);
+    }
+
+    public synchronized boolean setBlock(long sectionKey, int x, int y, int z, boolean opaque) {
+        int state = index.get(sectionKey);
+        if (state == MISSING || state == (opaque ? FULL : EMPTY)) {
+            return false;
+        }
+
+        int slot = state;
+        if (state < 0) {
+            slot = allocateSlot();
+            fillSlot(slot, state == FULL ? -1L : 0L);
+        }
+
+        int bit = (y << 8) | (z << 4) | x;
+        ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+        int offset = (slot & (SLOTS_PER_SLAB - 1)) * SECTION_BYTES + (bit >>> 6) * Long.BYTES;
+        long previous = slab.getLong(offset);
+        long word = opaque ? previous | (1L << (bit & 63)) : previous & ~(1L << (bit & 63));
+        if (word == previous) {
+            return false;
+        }
+        beginWrite(slot);
+        slab.putLong(offset, word);
+        endWrite(slot);
+
+        if (slot != state) {
+            index.put(sectionKey, slot);
+        }
+        return true;
+    }
+
+    public synchronized void removeSection(long sectionKey) {
+        releaseSlot(index.remove(sectionKey));
+    }
+
+    public synchronized void clear() {
+        index.clear();
+        freeCount = 0;
+        nextSlot = 0;
+    }
+
+    public int getSectionCount() {
+        return index.size();
+    }
+
+    public long getOffHeapBytes() {
+        return (long) slabs.length * SLOTS_PER_SLAB * SECTION_BYTES;
+    }
+
+    private void readMask(int slot, long[] dest) {
+        ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+        int base = (slot & (SLOTS_PER_SLAB - 1)) * SECTION_BYTES;
+        for (int i = 0; i < WORDS_PER_SECTION; i++) {
+            dest[i] = slab.getLong(base + i * Long.BYTES);
+        }
+    }
+
+    private void writeMask(int slot, long[] mask) {
+        ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+        int base = (slot & (SLOTS_PER_SLAB - 1)) * SECTION_BYTES;
+        beginWrite(slot);
+        for (int i = 0; i < WORDS_PER_SECTION; i++) {
+            slab.putLong(base + i * Long.BYTES, mask[i]);
+        }
+        endWrite(slot);
+    }
+
+    private void fillSlot(int slot, long value) {
+        ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+        int base = (slot & (SLOTS_PER_SLAB - 1)) * SECTION_BYTES;
+        beginWrite(slot);
+        for (int i = 0; i < WORDS_PER_SECTION; i++) {
+            slab.putLong(base + i * Long.BYTES, value);
+        }
+        endWrite(slot);
+    }
+
+    private void beginWrite(int slot) {
+        sequences[slot >>> SLAB_SHIFT].incrementAndGet(slot & (SLOTS_PER_SLAB - 1));
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite(int slot) {
+        sequences[slot >>> SLAB_SHIFT].incrementAndGet(slot & (SLOTS_PER_SLAB - 1));
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+
+        int slot = nextSlot++;
+        int slabIndex = slot >>> SLAB_SHIFT;
+        if (slabIndex >= slabs.length) {
+            ByteBuffer[] grown = new ByteBuffer[slabIndex + 1];
+            System.arraycopy(slabs, 0, grown, 0, slabs.length);
+            grown[slabIndex] = ByteBuffer.allocateDirect(SLOTS_PER_SLAB * SECTION_BYTES)
+                .order(ByteOrder.nativeOrder());
+            AtomicIntegerArray[] grownSequences = new AtomicIntegerArray[slabIndex + 1];
+            System.arraycopy(sequences, 0, grownSequences, 0, sequences.length);
+            grownSequences[slabIndex] = new AtomicIntegerArray(SLOTS_PER_SLAB);
+            sequences = grownSequences;
+            slabs = grown;
+        }
+        return slot;
+    }
+
+    private void releaseSlot(int slot) {
+        if (slot < 0) return;
+
+        beginWrite(slot);
+        endWrite(slot);
+
+        if (freeCount == freeSlots.length) {
+            int[] grown = new int[freeSlots.length * 2];
+            System.arraycopy(freeSlots, 0, grown, 0, freeCount);
+            freeSlots = grown;
+        }
+        freeSlots[freeCount++] = slot;
+    }
+}
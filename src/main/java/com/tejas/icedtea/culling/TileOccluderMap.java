@@ -0,0 +1,120 @@
+package com.tejas.icedtea.culling;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class TileOccluderMap {
+    private static final int BIN_COUNT = 1024;
+    private static final float BIN_WIDTH = 4.0f / BIN_COUNT;
+    private static final double MIN_DISTANCE = 16.0;
+    private static final int NO_RUN = Integer.MIN_VALUE;
+
+    private final SectionOpacityStore opacityStore;
+    private final AtomicReferenceArray<Band> bands = new AtomicReferenceArray<>(BIN_COUNT);
+    private volatile Vec3 cameraPos = Vec3.ZERO;
+
+    public TileOccluderMap(SectionOpacityStore opacityStore) {
+        this.opacityStore = opacityStore;
+    }
+
+    public void reset(Vec3 cameraPos) {
+        this.cameraPos = cameraPos;
+        for (int i = 0; i < BIN_COUNT; i++) {
+            bands.set(i, null);
+        }
+    }
+
+    public void addColumn(int chunkX, int chunkZ, int minSection, int maxSection) {
+        Vec3 camera = cameraPos;
+        double near = HorizonCuller.nearestDistance(camera, chunkX << 4, chunkZ << 4, 16);
+        if (near < MIN_DISTANCE) return;
+        double far = HorizonCuller.farthestDistance(camera, chunkX << 4, chunkZ << 4, 16);
+
+        float[] span = new float[2];
+        HorizonCuller.angularSpan(camera, chunkX << 4, chunkZ << 4, 16, span);
+        int first = (int) Math.ceil(span[0] / BIN_WIDTH);
+        int last = (int) Math.floor(span[1] / BIN_WIDTH) - 1;
+        if (first > last) return;
+
+        int runStart = NO_RUN;
+        for (int sectionY = minSection; sectionY <= maxSection; sectionY++) {
+            boolean full = sectionY < maxSection
+                && opacityStore.getSectionState(SectionPos.asLong(chunkX, sectionY, chunkZ)) == SectionOpacityStore.FULL;
+            if (full && runStart == NO_RUN) {
+                runStart = sectionY;
+            } else if (!full && runStart != NO_RUN) {
+                double bottom = (runStart << 4) - camera.y;
+                double top = (sectionY << 4) - camera.y;
+                float low = (float) Math.max(bottom / near, bottom / far);
+                float high = (float) Math.min(top / near, top / far);
+                if (low <= high) {
+                    for (int bin = first; bin <= last; bin++) {
+                        merge(Math.floorMod(bin, BIN_COUNT), low, high, (float) far);
+                    }
+                }
+                runStart = NO_RUN;
+            }
+        }
+    }
+
+    public boolean isSectionHidden(int chunkX, int sectionY, int chunkZ) {
+        Vec3 camera = cameraPos;
+        double near = HorizonCuller.nearestDistance(camera, chunkX << 4, chunkZ << 4, 16);
+        if (near < MIN_DISTANCE) return false;
+        double far = HorizonCuller.farthestDistance(camera, chunkX << 4, chunkZ << 4, 16);
+
+        double bottom = (sectionY << 4) - camera.y;
+        double top = ((sectionY + 1) << 4) - camera.y;
+        double low = bottom / (bottom < 0 ? near : far);
+        double high = top / (top > 0 ? near : far);
+
+        float[] span = new float[2];
+        HorizonCuller.angularSpan(camera, chunkX << 4, chunkZ << 4, 16, span);
+        int first = (int) Math.floor(span[0] / BIN_WIDTH);
+        int last = (int) Math.floor(span[1] / BIN_WIDTH);
+        for (int bin = first; bin <= last; bin++) {
+            Band band = bands.get(Math.floorMod(bin, BIN_COUNT));
+            if (band == null || band.far >= near || band.low > low || band.high < high) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        reset(Vec3.ZERO);
+    }
+
+    private void merge(int index, float low, float high, float far) {
+        while (true) {
+            Band current = bands.get(index);
+            Band next;
+            if (current == null) {
+                next = new Band(low, high, far);
+            } else if (low <= current.high && high >= current.low) {
+                next = new Band(Math.min(low, current.low), Math.max(high, current.high), Math.max(far, current.far));
+            } else if (high - low > current.high - current.low) {
+                next = new Band(low, high, far);
+            } else {
+                return;
+            }
+            if (bands.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private static final class Band {
+        final float low;
+        final float high;
+        final float far;
+
+        Band(float low, float high, float far) {
+            this.low = low;
+            this.high = high;
+            this.far = far;
+        }
+    }
+}
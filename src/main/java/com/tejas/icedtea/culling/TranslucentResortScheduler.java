@@ -0,0 +1,185 @@
+package com.tejas.icedtea.culling;
+
+import com.tejas.icedtea.IcedTeaMod;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TranslucentResortScheduler {
+    private static final int RESORT_BUDGET = 12;
+    private static final int NEAR_DISTANCE = 2;
+    private static final int MID_DISTANCE = 4;
+
+    private final List<ChunkRenderDispatcher.RenderChunk> candidates = new ArrayList<>();
+    private final List<ChunkRenderDispatcher.RenderChunk> waiting = new ArrayList<>();
+    private final Map<ChunkRenderDispatcher.RenderChunk, Integer> pending = new IdentityHashMap<>();
+    private int[] candidateQuads = new int[64];
+    private float[] scores = new float[64];
+    private int[] order = new int[64];
+
+    private ChunkRenderDispatcher dispatcher;
+    private int cameraX;
+    private int cameraY;
+    private int cameraZ;
+    private int pass;
+
+    public void beginPass(double x, double y, double z) {
+        cameraX = SectionPos.blockToSectionCoord(x);
+        cameraY = SectionPos.blockToSectionCoord(y);
+        cameraZ = SectionPos.blockToSectionCoord(z);
+        candidates.clear();
+    }
+
+    public void offer(ChunkRenderDispatcher.RenderChunk chunk, ChunkRenderDispatcher dispatcher,
+                      int state, int translucentQuads) {
+        this.dispatcher = dispatcher;
+        if (translucentQuads <= 0) {
+            pending.remove(chunk);
+            return;
+        }
+        if (state == VisibilitySet.OCCLUDED || state == VisibilitySet.OUT_OF_FRUSTUM) {
+            pending.put(chunk, translucentQuads);
+            return;
+        }
+
+        BlockPos origin = chunk.getOrigin();
+        int sectionX = SectionPos.blockToSectionCoord(origin.getX());
+        int sectionY = SectionPos.blockToSectionCoord(origin.getY());
+        int sectionZ = SectionPos.blockToSectionCoord(origin.getZ());
+        int dx = sectionX - cameraX;
+        int dy = sectionY - cameraY;
+        int dz = sectionZ - cameraZ;
+        int distance = Math.max(Math.abs(dx), Math.max(Math.abs(dy), Math.abs(dz)));
+
+        int interval = distance <= NEAR_DISTANCE ? 1 : distance <= MID_DISTANCE ? 2 : 4;
+        if (((pass + sectionX + sectionY + sectionZ) & (interval - 1)) != 0) {
+            pending.put(chunk, translucentQuads);
+            return;
+        }
+
+        pending.remove(chunk);
+        int index = candidates.size();
+        if (index == candidateQuads.length) {
+            candidateQuads = Arrays.copyOf(candidateQuads, index * 2);
+        }
+        candidates.add(chunk);
+        candidateQuads[index] = translucentQuads;
+    }
+
+    public void flush(RenderType renderType, OcclusionCullingSystem cullingSystem) {
+        int count = candidates.size();
+        if ((count == 0 && pending.isEmpty()) || dispatcher == null) {
+            candidates.clear();
+            return;
+        }
+        pass++;
+
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            scores[i] = score(candidates.get(i), candidateQuads[i]);
+        }
+        int resorted = 0;
+        int attempted = selectBest(count);
+        for (int i = 0; i < attempted && resorted < RESORT_BUDGET; i++) {
+            if (candidates.get(order[i]).resortTransparency(renderType, dispatcher)) {
+                resorted++;
+            }
+        }
+        for (int i = attempted; i < count; i++) {
+            pending.put(candidates.get(order[i]), candidateQuads[order[i]]);
+        }
+
+        int caughtUp = 0;
+        if (resorted < RESORT_BUDGET && !pending.isEmpty()) {
+            waiting.clear();
+            for (ChunkRenderDispatcher.RenderChunk chunk : pending.keySet()) {
+                if (!VisibilitySet.isCulled(getState(cullingSystem, chunk))) {
+                    waiting.add(chunk);
+                }
+            }
+            int waitingCount = waiting.size();
+            ensureCapacity(waitingCount);
+            for (int i = 0; i < waitingCount; i++) {
+                scores[i] = score(waiting.get(i), pending.get(waiting.get(i)));
+            }
+            int limit = selectBest(waitingCount);
+            for (int i = 0; i < limit && resorted < RESORT_BUDGET; i++) {
+                ChunkRenderDispatcher.RenderChunk chunk = waiting.get(order[i]);
+                pending.remove(chunk);
+                if (chunk.resortTransparency(renderType, dispatcher)) {
+                    resorted++;
+                    caughtUp++;
+                }
+            }
+            waiting.clear();
+        }
+
+        if (IcedTeaMod.isDebugMode()) {
+            IcedTeaMod.LOGGER.info("[IcedTea][RESORT] Resorted {} of {} translucent candidates, {} caught up, {} pending",
+                resorted - caughtUp, count, caughtUp, pending.size());
+        }
+        candidates.clear();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void clear() {
+        candidates.clear();
+        waiting.clear();
+        pending.clear();
+        dispatcher = null;
+    }
+
+    private float score(ChunkRenderDispatcher.RenderChunk chunk, int translucentQuads) {
+        BlockPos origin = chunk.getOrigin();
+        int dx = SectionPos.blockToSectionCoord(origin.getX()) - cameraX;
+        int dy = SectionPos.blockToSectionCoord(origin.getY()) - cameraY;
+        int dz = SectionPos.blockToSectionCoord(origin.getZ()) - cameraZ;
+        return translucentQuads / (float) (1 + dx * dx + dy * dy + dz * dz);
+    }
+
+    private static int getState(OcclusionCullingSystem cullingSystem, ChunkRenderDispatcher.RenderChunk chunk) {
+        BlockPos origin = chunk.getOrigin();
+        return cullingSystem.getSectionState(
+            SectionPos.blockToSectionCoord(origin.getX()),
+            SectionPos.blockToSectionCoord(origin.getY()),
+            SectionPos.blockToSectionCoord(origin.getZ())
+        );
+    }
+
+    private int selectBest(int count) {
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        int limit = Math.min(RESORT_BUDGET, count);
+        for (int i = 0; i < limit; i++) {
+            int best = i;
+            for (int j = i + 1; j < count; j++) {
+                if (scores[order[j]] > scores[order[best]]) {
+                    best = j;
+                }
+            }
+            int swap = order[i];
+            order[i] = order[best];
+            order[best] = swap;
+        }
+        return limit;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count > scores.length) {
+            int capacity = Math.max(count, scores.length * 2);
+            scores = Arrays.copyOf(scores, capacity);
+            order = Arrays.copyOf(order, capacity);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.tejas.icedtea.culling;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VisibilitySet {
+    public static final int UNKNOWN = 0;
+    public static final int VISIBLE = 1;
+    public static final int OUT_OF_FRUSTUM = 2;
+    public static final int OCCLUDED = 3;
+    public static final int LIKELY_OCCLUDED = 4;
+
+    private static final int STATE_BITS = 3;
+    private static final int STATE_MASK = (1 << STATE_BITS) - 1;
+
+    private final AtomicInteger totalSections = new AtomicInteger(0);
+    private final AtomicInteger culledSections = new AtomicInteger(0);
+
+    private int[] sectionCells = new int[0];
+    private int[] columnCells = new int[0];
+    private int gridShift;
+    private int gridMask;
+    private int generation;
+
+    private int centerX;
+    private int centerZ;
+    private int radius = -1;
+    private int minSection;
+    private int height;
+    private long frameId = -1;
+    private long renderFrame = -1;
+    private long cameraSectionKey = Long.MIN_VALUE;
+    private Vec3 cameraPos = Vec3.ZERO;
+
+    public void reset(long frameId, long renderFrame, long cameraSectionKey, Vec3 cameraPos,
+                      int centerX, int centerZ, int radius, int minSection, int maxSection) {
+        int shift = 1;
+        while ((1 << shift) < radius * 2 + 1) {
+            shift++;
+        }
+
+        int sectionHeight = maxSection - minSection;
+        int size = 1 << shift;
+        if (shift != gridShift || sectionHeight != height) {
+            gridShift = shift;
+            gridMask = size - 1;
+            height = sectionHeight;
+            sectionCells = new int[size * size * sectionHeight];
+            columnCells = new int[size * size];
+            generation = 0;
+        }
+
+        nextGeneration();
+
+        this.frameId = frameId;
+        this.renderFrame = renderFrame;
+        this.cameraSectionKey = cameraSectionKey;
+        this.cameraPos = cameraPos;
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.minSection = minSection;
+        totalSections.set(0);
+        culledSections.set(0);
+    }
+
+    public void invalidate() {
+        nextGeneration();
+        totalSections.set(0);
+        culledSections.set(0);
+    }
+
+    public void putSection(int x, int y, int z, int state) {
+        sectionCells[sectionIndex(x, y, z)] = (generation << STATE_BITS) | state;
+    }
+
+    public void putColumn(int x, int z, boolean visible) {
+        columnCells[columnIndex(x, z)] = (generation << STATE_BITS) | (visible ? VISIBLE : OCCLUDED);
+    }
+
+    public void addCounts(int total, int culled) {
+        totalSections.addAndGet(total);
+        culledSections.addAndGet(culled);
+    }
+
+    public int getSectionState(int x, int y, int z) {
+        if (Math.abs(x - centerX) > radius || Math.abs(z - centerZ) > radius
+            || y < minSection || y >= minSection + height) {
+            return UNKNOWN;
+        }
+
+        int cell = sectionCells[sectionIndex(x, y, z)];
+        return cell >>> STATE_BITS == generation ? cell & STATE_MASK : UNKNOWN;
+    }
+
+    public boolean isSectionVisible(int x, int y, int z) {
+        return !isCulled(getSectionState(x, y, z));
+    }
+
+    public boolean isSectionVisible(long sectionKey) {
+        return isSectionVisible(SectionPos.x(sectionKey), SectionPos.y(sectionKey), SectionPos.z(sectionKey));
+    }
+
+    public boolean isColumnVisible(int x, int z) {
+        if (Math.abs(x - centerX) > radius || Math.abs(z - centerZ) > radius) {
+            return true;
+        }
+
+        int cell = columnCells[columnIndex(x, z)];
+        return cell >>> STATE_BITS != generation || (cell & STATE_MASK) == VISIBLE;
+    }
+
+    public boolean isColumnVisible(long chunkKey) {
+        return isColumnVisible(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey));
+    }
+
+    public static boolean isCulled(int state) {
+        return state == OUT_OF_FRUSTUM || state == OCCLUDED;
+    }
+
+    public int getTotalSections() {
+        return totalSections.get();
+    }
+
+    public int getCulledSections() {
+        return culledSections.get();
+    }
+
+    public long getFrameId() {
+        return frameId;
+    }
+
+    public long getRenderFrame() {
+        return renderFrame;
+    }
+
+    public long getCameraSectionKey() {
+        return cameraSectionKey;
+    }
+
+    public Vec3 getCameraPos() {
+        return cameraPos;
+    }
+
+    private void nextGeneration() {
+        generation++;
+        if ((generation << STATE_BITS) >>> STATE_BITS != generation) {
+            generation = 1;
+            Arrays.fill(sectionCells, 0);
+            Arrays.fill(columnCells, 0);
+        }
+    }
+
+    private int columnIndex(int x, int z) {
+        return ((x & gridMask) << gridShift) | (z & gridMask);
+    }
+
+    private int sectionIndex(int x, int y, int z) {
+        return columnIndex(x, z) * height + (y - minSection);
+    }
+}
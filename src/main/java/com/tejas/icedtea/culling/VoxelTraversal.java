@@ -0,0 +1,251 @@
+package com.tejas.icedtea.culling;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.phys.Vec3;
+
+public class VoxelTraversal {
+    public static final int END = 0;
+    public static final int UNLOADED = 1;
+    public static final int AIR = 2;
+    public static final int OPAQUE = 3;
+    public static final int BLOCK = 4;
+
+    private static final int SECTION_MIXED = 0;
+    private static final int SECTION_EMPTY = 1;
+    private static final int SECTION_FULL = 2;
+    private static final int SECTION_UNLOADED = 3;
+
+    private final Level level;
+    private final SectionOpacityStore opacityStore;
+
+    private int x, y, z;
+    private final int endX, endY, endZ;
+    private final int stepX, stepY, stepZ;
+    private final double tDeltaX, tDeltaY, tDeltaZ;
+    private double tMaxX, tMaxY, tMaxZ;
+
+    private boolean finished;
+    private int runLength;
+    private boolean blockOpaque;
+    private boolean blockAir;
+
+    private long cachedSectionKey = Long.MIN_VALUE;
+    private int cachedSectionType;
+    private LevelChunkSection cachedSection;
+    private long[] cachedMask;
+    private long cachedChunkKey = Long.MIN_VALUE;
+    private LevelChunk cachedChunk;
+
+    public VoxelTraversal(Level level, Vec3 origin, Vec3 target) {
+        this(level, null, origin, target);
+    }
+
+    public VoxelTraversal(Level level, SectionOpacityStore opacityStore, Vec3 origin, Vec3 target) {
+        this.level = level;
+        this.opacityStore = opacityStore;
+
+        this.x = floor(origin.x);
+        this.y = floor(origin.y);
+        this.z = floor(origin.z);
+        this.endX = floor(target.x);
+        this.endY = floor(target.y);
+        this.endZ = floor(target.z);
+
+        double dx = target.x - origin.x;
+        double dy = target.y - origin.y;
+        double dz = target.z - origin.z;
+
+        this.stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+        this.stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+        this.stepZ = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+
+        this.tDeltaX = stepX != 0 ? Math.abs(1.0 / dx) : Double.POSITIVE_INFINITY;
+        this.tDeltaY = stepY != 0 ? Math.abs(1.0 / dy) : Double.POSITIVE_INFINITY;
+        this.tDeltaZ = stepZ != 0 ? Math.abs(1.0 / dz) : Double.POSITIVE_INFINITY;
+
+        this.tMaxX = initialBoundary(origin.x, x, stepX, tDeltaX);
+        this.tMaxY = initialBoundary(origin.y, y, stepY, tDeltaY);
+        this.tMaxZ = initialBoundary(origin.z, z, stepZ, tDeltaZ);
+
+        this.finished = x == endX && y == endY && z == endZ;
+    }
+
+    public int next() {
+        if (finished || !step()) {
+            finished = true;
+            return END;
+        }
+
+        int sectionType = classifySection(x >> 4, y >> 4, z >> 4);
+        if (sectionType == SECTION_UNLOADED) {
+            finished = true;
+            return UNLOADED;
+        }
+
+        if (sectionType == SECTION_MIXED) {
+            runLength = 1;
+            if (cachedSection != null) {
+                BlockState state = cachedSection.getBlockState(x & 15, y & 15, z & 15);
+                blockAir = state.isAir();
+                blockOpaque = isFullOpaque(state);
+            } else {
+                blockOpaque = SectionOpacityStore.isOpaque(cachedMask, x & 15, y & 15, z & 15);
+                blockAir = !blockOpaque;
+            }
+            return BLOCK;
+        }
+
+        runLength = skipSection();
+        return sectionType == SECTION_EMPTY ? AIR : OPAQUE;
+    }
+
+    public int runLength() {
+        return runLength;
+    }
+
+    public boolean isBlockOpaque() {
+        return blockOpaque;
+    }
+
+    public boolean isBlockAir() {
+        return blockAir;
+    }
+
+    private boolean step() {
+        if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+            if (tMaxX > 1.0) return false;
+            x += stepX;
+            tMaxX += tDeltaX;
+        } else if (tMaxY < tMaxZ) {
+            if (tMaxY > 1.0) return false;
+            y += stepY;
+            tMaxY += tDeltaY;
+        } else {
+            if (tMaxZ > 1.0) return false;
+            z += stepZ;
+            tMaxZ += tDeltaZ;
+        }
+
+        return !(x == endX && y == endY && z == endZ);
+    }
+
+    private int skipSection() {
+        int sectionX = x >> 4;
+        int sectionY = y >> 4;
+        int sectionZ = z >> 4;
+
+        if (endX >> 4 == sectionX && endY >> 4 == sectionY && endZ >> 4 == sectionZ) {
+            int remaining = Math.abs(endX - x) + Math.abs(endY - y) + Math.abs(endZ - z);
+            finished = true;
+            return remaining;
+        }
+
+        int crossX = crossingsToLeave(x, stepX);
+        int crossY = crossingsToLeave(y, stepY);
+        int crossZ = crossingsToLeave(z, stepZ);
+
+        double leaveX = stepX != 0 ? tMaxX + (crossX - 1) * tDeltaX : Double.POSITIVE_INFINITY;
+        double leaveY = stepY != 0 ? tMaxY + (crossY - 1) * tDeltaY : Double.POSITIVE_INFINITY;
+        double leaveZ = stepZ != 0 ? tMaxZ + (crossZ - 1) * tDeltaZ : Double.POSITIVE_INFINITY;
+        double leave = Math.min(leaveX, Math.min(leaveY, leaveZ));
+
+        int moveX = crossingsBefore(tMaxX, tDeltaX, leave, crossX);
+        int moveY = crossingsBefore(tMaxY, tDeltaY, leave, crossY);
+        int moveZ = crossingsBefore(tMaxZ, tDeltaZ, leave, crossZ);
+
+        x += stepX * moveX;
+        y += stepY * moveY;
+        z += stepZ * moveZ;
+        tMaxX += moveX * tDeltaX;
+        tMaxY += moveY * tDeltaY;
+        tMaxZ += moveZ * tDeltaZ;
+
+        return 1 + moveX + moveY + moveZ;
+    }
+
+    private int classifySection(int sectionX, int sectionY, int sectionZ) {
+        long key = SectionPos.asLong(sectionX, sectionY, sectionZ);
+        if (key == cachedSectionKey) {
+            return cachedSectionType;
+        }
+
+        cachedSectionKey = key;
+        cachedSection = null;
+        cachedSectionType = opacityStore != null
+            ? loadStoredSection(key)
+            : loadSection(sectionX, sectionY, sectionZ);
+        return cachedSectionType;
+    }
+
+    private int loadStoredSection(long key) {
+        if (cachedMask == null) {
+            cachedMask = new long[SectionOpacityStore.WORDS_PER_SECTION];
+        }
+        int state = opacityStore.copyMask(key, cachedMask);
+        if (state == SectionOpacityStore.MISSING) return SECTION_UNLOADED;
+        if (state == SectionOpacityStore.EMPTY) return SECTION_EMPTY;
+        if (state == SectionOpacityStore.FULL) return SECTION_FULL;
+        return SECTION_MIXED;
+    }
+
+    private int loadSection(int sectionX, int sectionY, int sectionZ) {
+        if (sectionY < level.getMinSection() || sectionY >= level.getMaxSection()) {
+            return SECTION_UNLOADED;
+        }
+
+        long chunkKey = ChunkPos.asLong(sectionX, sectionZ);
+        if (chunkKey != cachedChunkKey) {
+            cachedChunkKey = chunkKey;
+            cachedChunk = level.hasChunk(sectionX, sectionZ) ? level.getChunk(sectionX, sectionZ) : null;
+        }
+        if (cachedChunk == null) {
+            return SECTION_UNLOADED;
+        }
+
+        LevelChunkSection section = cachedChunk.getSection(level.getSectionIndexFromSectionY(sectionY));
+        if (section == null || section.hasOnlyAir()) {
+            return SECTION_EMPTY;
+        }
+
+        cachedSection = section;
+        if (!section.maybeHas(state -> !isFullOpaque(state))) {
+            return SECTION_FULL;
+        }
+        return SECTION_MIXED;
+    }
+
+    public static boolean isFullOpaque(BlockState state) {
+        return !state.isAir() && state.canOcclude()
+            && state.isSolidRender(EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
+    }
+
+    private static int crossingsToLeave(int coord, int step) {
+        if (step > 0) return 16 - (coord & 15);
+        if (step < 0) return (coord & 15) + 1;
+        return Integer.MAX_VALUE;
+    }
+
+    private static int crossingsBefore(double tMax, double tDelta, double limit, int crossings) {
+        if (crossings == Integer.MAX_VALUE || tMax >= limit) return 0;
+        int count = (int) Math.ceil((limit - tMax) / tDelta);
+        return Math.min(count, crossings - 1);
+    }
+
+    private static double initialBoundary(double origin, int block, int step, double tDelta) {
+        if (step > 0) return (block + 1 - origin) * tDelta;
+        if (step < 0) return (origin - block) * tDelta;
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private static int floor(double value) {
+        int i = (int) value;
+        return value < i ? i - 1 : i;
+    }
+}
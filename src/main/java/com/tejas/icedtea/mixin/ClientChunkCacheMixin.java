@@ -0,0 +1,30 @@
+package com.tejas.icedtea.mixin;
+
+import com.tejas.icedtea.IcedTeaMod;
+import com.tejas.icedtea.culling.OcclusionCullingSystem;
+import net.minecraft.client.multiplayer.ClientChunkCache;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.LightLayer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientChunkCache.class)
+public class ClientChunkCacheMixin {
+
+    @Inject(
+        method = "onLightUpdate",
+        at = @At("HEAD")
+    )
+    private void onLightUpdate(LightLayer lightLayer, SectionPos sectionPos, CallbackInfo ci) {
+        if (lightLayer != LightLayer.SKY) {
+            return;
+        }
+
+        OcclusionCullingSystem cullingSystem = IcedTeaMod.getCullingSystem();
+        if (cullingSystem != null) {
+            cullingSystem.getSectionExposure().invalidate(sectionPos.asLong());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.tejas.icedtea.mixin;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(ChunkRenderDispatcher.CompiledChunk.class)
+public interface CompiledChunkAccessor {
+    @Accessor("transparencyState")
+    BufferBuilder.SortState getTransparencyState();
+}
@@ -9,7 +9,6 @@ import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.entity.EntityRenderDispatcher;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.Entity;
-import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
@@ -136,11 +135,10 @@ if (!mc.level.isLoaded(entityBlockPos)) {
     return;
 }
 
-ChunkPos entityChunkPos = new ChunkPos(entityBlockPos);
-if (IcedTeaMod.getCullingSystem() != null && 
-    !IcedTeaMod.getCullingSystem().shouldRenderChunk(entityChunkPos)) {
+if (IcedTeaMod.getCullingSystem() != null
+    && IcedTeaMod.getCullingSystem().isBoxOccluded(entity.getBoundingBox())) {
     if (IcedTeaMod.isDebugMode()) {
-        IcedTeaMod.LOGGER.info("[IcedTea][ENTITY] {}: Parent chunk not visible, culled", entity.getType().toString());
+        IcedTeaMod.LOGGER.info("[IcedTea][ENTITY] {}: All covered sections occluded, culled", entity.getType().toString());
     }
     ci.cancel();
     checkAndUpdateStats();
@@ -0,0 +1,43 @@
+package com.tejas.icedtea.mixin;
+
+import com.tejas.icedtea.IcedTeaMod;
+import com.tejas.icedtea.culling.OcclusionCullingSystem;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(targets = "net.minecraft.world.level.entity.TransientEntitySectionManager$Callback")
+public class EntitySectionCallbackMixin {
+
+    @Shadow
+    private long currentSectionKey;
+
+    @Unique
+    private long icedtea$previousSectionKey;
+
+    @Inject(
+        method = "onMove",
+        at = @At("HEAD")
+    )
+    private void onMoveHead(CallbackInfo ci) {
+        icedtea$previousSectionKey = currentSectionKey;
+    }
+
+    @Inject(
+        method = "onMove",
+        at = @At("TAIL")
+    )
+    private void onMoveTail(CallbackInfo ci) {
+        if (currentSectionKey == icedtea$previousSectionKey) {
+            return;
+        }
+
+        OcclusionCullingSystem cullingSystem = IcedTeaMod.getCullingSystem();
+        if (cullingSystem != null) {
+            cullingSystem.getDensityOptimizer().onEntitySectionMove(icedtea$previousSectionKey, currentSectionKey);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.tejas.icedtea.mixin;
+
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import java.util.Map;
+
+@Mixin(ChunkRenderDispatcher.RenderChunk.class)
+public interface RenderChunkAccessor {
+    @Accessor("buffers")
+    Map<RenderType, VertexBuffer> getBuffers();
+
+    @Invoker("reset")
+    void invokeReset();
+}
@@ -0,0 +1,11 @@
+package com.tejas.icedtea.mixin;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(BufferBuilder.SortState.class)
+public interface SortStateAccessor {
+    @Accessor("vertices")
+    int getVertices();
+}
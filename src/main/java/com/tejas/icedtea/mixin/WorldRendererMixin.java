@@ -1,22 +1,38 @@
 package com.tejas.icedtea.mixin;
 
+import com.mojang.blaze3d.vertex.BufferBuilder;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.tejas.icedtea.IcedTeaMod;
 import com.tejas.icedtea.client.IcedTeaHudOverlay;
 import com.tejas.icedtea.culling.OcclusionCullingSystem;
+import com.tejas.icedtea.culling.VisibilitySet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.client.Camera;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.ViewArea;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import net.minecraft.client.renderer.chunk.RenderRegionCache;
 import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.ChunkPos;
-import org.joml.FrustumIntersection;
+import net.minecraft.world.level.block.state.BlockState;
 import org.joml.Matrix4f;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
 @Mixin(LevelRenderer.class)
 public abstract class WorldRendererMixin {
     
@@ -25,9 +41,27 @@ public abstract class WorldRendererMixin {
     
     @Shadow
     private Frustum cullingFrustum;
-    
-    private FrustumIntersection cachedFrustumIntersection;
-    private long lastFrustumUpdate = 0;
+
+    @Shadow
+    @Final
+    private ObjectArrayList<?> renderChunksInFrustum;
+
+    @Shadow
+    @Final
+    private AtomicBoolean needsFrustumUpdate;
+
+    @Shadow
+    private ViewArea viewArea;
+
+    @Shadow
+    private ChunkRenderDispatcher chunkRenderDispatcher;
+
+    @Unique
+    private long icedtea$appliedVisibilityFrame = -1;
+
+    @Unique
+    private final Function<BlockPos, ChunkRenderDispatcher.RenderChunk> icedtea$renderChunkLookup =
+        pos -> viewArea == null ? null : ((ViewAreaInvoker) viewArea).invokeGetRenderChunkAt(pos);
 
     @Inject(
         method = "renderLevel",
@@ -60,35 +94,200 @@ public abstract class WorldRendererMixin {
             
             int renderDistance = minecraft.options.renderDistance().get();
             
-            FrustumIntersection frustumIntersection = createFrustumIntersection(
-                poseStack,
-                projectionMatrix
-            );
+            Matrix4f viewProjection = new Matrix4f(projectionMatrix);
+            viewProjection.mul(new Matrix4f(poseStack.last().pose()));
             
             long startTime = System.nanoTime();
-            cullingSystem.cullChunks(camera, frustumIntersection, renderDistance);
+            cullingSystem.cullChunks(camera, viewProjection, renderDistance);
             IcedTeaHudOverlay.recordFrameTime(System.nanoTime() - startTime);
             
+            if (IcedTeaMod.getConfig().isTerrainCullingEnabled()
+                && cullingSystem.getVisibilityFrameId() != icedtea$appliedVisibilityFrame) {
+                needsFrustumUpdate.set(true);
+            }
+            
+            if (IcedTeaMod.getConfig().isTerrainCullingEnabled() && viewArea != null && chunkRenderDispatcher != null) {
+                cullingSystem.getSectionEvictor().tick(
+                    cullingSystem, icedtea$renderChunkLookup, chunkRenderDispatcher,
+                    camera.getPosition(), IcedTeaMod.getConfig().getOccludedEvictionSeconds()
+                );
+            }
+            
         } catch (Exception e) {
             IcedTeaMod.LOGGER.error("Error during occlusion culling", e);
         }
     }
 
-    private FrustumIntersection createFrustumIntersection(PoseStack poseStack, Matrix4f projectionMatrix) {
-        long currentTime = System.currentTimeMillis();
-        
-        if (cachedFrustumIntersection != null && (currentTime - lastFrustumUpdate) < 50) {
-            return cachedFrustumIntersection;
+    @Inject(
+        method = "applyFrustum",
+        at = @At("TAIL")
+    )
+    private void onApplyFrustum(Frustum frustum, CallbackInfo ci) {
+        if (!IcedTeaMod.isModEnabled()
+            || !IcedTeaMod.getConfig().isOcclusionCullingEnabled()
+            || !IcedTeaMod.getConfig().isTerrainCullingEnabled()) {
+            return;
+        }
+
+        OcclusionCullingSystem cullingSystem = IcedTeaMod.getCullingSystem();
+        if (cullingSystem == null) {
+            return;
+        }
+
+        if (!cullingSystem.isVisibilityCurrent(minecraft.gameRenderer.getMainCamera().getPosition())) {
+            icedtea$appliedVisibilityFrame = -1;
+            return;
+        }
+
+        icedtea$appliedVisibilityFrame = cullingSystem.getVisibilityFrameId();
+        boolean deferCompiles = IcedTeaMod.getConfig().isCompileSchedulingEnabled() && chunkRenderDispatcher != null;
+        @SuppressWarnings("unchecked")
+        ObjectArrayList<Object> sections = (ObjectArrayList<Object>) renderChunksInFrustum;
+        int size = sections.size();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            Object info = sections.get(i);
+            ChunkRenderDispatcher.RenderChunk chunk = ((RenderChunkInfoAccessor) info).getChunk();
+            BlockPos origin = chunk.getOrigin();
+            int sectionX = SectionPos.blockToSectionCoord(origin.getX());
+            int sectionY = SectionPos.blockToSectionCoord(origin.getY());
+            int sectionZ = SectionPos.blockToSectionCoord(origin.getZ());
+            int state = cullingSystem.getSectionState(sectionX, sectionY, sectionZ);
+            if (state == VisibilitySet.OCCLUDED) {
+                if (deferCompiles && chunk.isDirty()
+                    && !cullingSystem.getSectionEvictor().isEvicted(SectionPos.asLong(sectionX, sectionY, sectionZ))) {
+                    cullingSystem.getCompileScheduler().deferOccluded(chunk, chunkRenderDispatcher);
+                }
+                continue;
+            }
+            sections.set(kept++, info);
+        }
+        sections.size(kept);
+
+        if (IcedTeaMod.isDebugMode() && kept < size) {
+            IcedTeaMod.LOGGER.info("[IcedTea][TERRAIN] Removed {} occluded sections from render list", size - kept);
+        }
+    }
+
+    @Redirect(
+        method = "compileChunks",
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk;rebuildChunkAsync(Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher;Lnet/minecraft/client/renderer/chunk/RenderRegionCache;)V"
+        )
+    )
+    private void onRebuildChunkAsync(
+        ChunkRenderDispatcher.RenderChunk chunk,
+        ChunkRenderDispatcher dispatcher,
+        RenderRegionCache regionCache
+    ) {
+        OcclusionCullingSystem cullingSystem = IcedTeaMod.getCullingSystem();
+        if (cullingSystem == null || !IcedTeaMod.isModEnabled()
+            || !IcedTeaMod.getConfig().isOcclusionCullingEnabled()
+            || !IcedTeaMod.getConfig().isCompileSchedulingEnabled()) {
+            chunk.rebuildChunkAsync(dispatcher, regionCache);
+            return;
+        }
+
+        BlockPos origin = chunk.getOrigin();
+        int state = cullingSystem.getSectionState(
+            SectionPos.blockToSectionCoord(origin.getX()),
+            SectionPos.blockToSectionCoord(origin.getY()),
+            SectionPos.blockToSectionCoord(origin.getZ())
+        );
+        cullingSystem.getCompileScheduler().schedule(chunk, dispatcher, regionCache, state);
+    }
+
+    @Inject(
+        method = "compileChunks",
+        at = @At("TAIL")
+    )
+    private void onCompileChunks(Camera camera, CallbackInfo ci) {
+        OcclusionCullingSystem cullingSystem = IcedTeaMod.getCullingSystem();
+        if (cullingSystem != null) {
+            cullingSystem.getCompileScheduler().flush(cullingSystem);
+        }
+    }
+
+    @Inject(
+        method = "renderChunkLayer",
+        at = @At("HEAD")
+    )
+    private void onRenderChunkLayerHead(RenderType renderType, PoseStack poseStack, double x, double y, double z,
+                                        Matrix4f projectionMatrix, CallbackInfo ci) {
+        OcclusionCullingSystem cullingSystem = IcedTeaMod.getCullingSystem();
+        if (cullingSystem != null && renderType == RenderType.translucent()) {
+            cullingSystem.getResortScheduler().beginPass(x, y, z);
+        }
+    }
+
+    @Redirect(
+        method = "renderChunkLayer",
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk;resortTransparency(Lnet/minecraft/client/renderer/RenderType;Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher;)Z"
+        )
+    )
+    private boolean onResortTransparency(
+        ChunkRenderDispatcher.RenderChunk chunk,
+        RenderType renderType,
+        ChunkRenderDispatcher dispatcher
+    ) {
+        OcclusionCullingSystem cullingSystem = IcedTeaMod.getCullingSystem();
+        if (cullingSystem == null || !IcedTeaMod.isModEnabled()
+            || !IcedTeaMod.getConfig().isOcclusionCullingEnabled()
+            || !IcedTeaMod.getConfig().isResortThrottlingEnabled()) {
+            return chunk.resortTransparency(renderType, dispatcher);
+        }
+
+        BlockPos origin = chunk.getOrigin();
+        int state = cullingSystem.getSectionState(
+            SectionPos.blockToSectionCoord(origin.getX()),
+            SectionPos.blockToSectionCoord(origin.getY()),
+            SectionPos.blockToSectionCoord(origin.getZ())
+        );
+        cullingSystem.getResortScheduler().offer(chunk, dispatcher, state, icedtea$getTranslucentQuads(chunk));
+        return false;
+    }
+
+    @Inject(
+        method = "renderChunkLayer",
+        at = @At("TAIL")
+    )
+    private void onRenderChunkLayerTail(RenderType renderType, PoseStack poseStack, double x, double y, double z,
+                                        Matrix4f projectionMatrix, CallbackInfo ci) {
+        OcclusionCullingSystem cullingSystem = IcedTeaMod.getCullingSystem();
+        if (cullingSystem != null && renderType == RenderType.translucent()) {
+            cullingSystem.getResortScheduler().flush(renderType, cullingSystem);
+        }
+    }
+
+    @Unique
+    private static int icedtea$getTranslucentQuads(ChunkRenderDispatcher.RenderChunk chunk) {
+        ChunkRenderDispatcher.CompiledChunk compiled = chunk.compiled.get();
+        if (compiled == null) {
+            return 0;
+        }
+        BufferBuilder.SortState sortState = ((CompiledChunkAccessor) compiled).getTransparencyState();
+        return sortState == null ? 0 : ((SortStateAccessor) sortState).getVertices() / 4;
+    }
+
+    @Inject(
+        method = "blockChanged",
+        at = @At("HEAD")
+    )
+    private void onBlockChanged(
+        BlockGetter level,
+        BlockPos pos,
+        BlockState oldState,
+        BlockState newState,
+        int flags,
+        CallbackInfo ci
+    ) {
+        OcclusionCullingSystem cullingSystem = IcedTeaMod.getCullingSystem();
+        if (cullingSystem != null) {
+            cullingSystem.getSectionTracker().onBlockChanged(pos, newState);
         }
-        
-        Matrix4f modelViewMatrix = new Matrix4f(poseStack.last().pose());
-        Matrix4f viewProjection = new Matrix4f(projectionMatrix);
-        viewProjection.mul(modelViewMatrix);
-        
-        cachedFrustumIntersection = new FrustumIntersection(viewProjection);
-        lastFrustumUpdate = currentTime;
-        
-        return cachedFrustumIntersection;
     }
 
     @Inject(
@@ -99,6 +298,5 @@ public abstract class WorldRendererMixin {
         if (IcedTeaMod.getCullingSystem() != null) {
             IcedTeaMod.getCullingSystem().clearCache();
         }
-        cachedFrustumIntersection = null;
     }
 }
\ No newline at end of file
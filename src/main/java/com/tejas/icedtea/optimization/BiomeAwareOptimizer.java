@@ -1,66 +1,70 @@
 package com.tejas.icedtea.optimization;
 
-import net.minecraft.client.Minecraft;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.tejas.icedtea.IcedTeaMod;
+import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.BiomeTags;
+import net.minecraft.tags.TagKey;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.ChunkPos;
-import java.util.concurrent.ConcurrentHashMap;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 
 public class BiomeAwareOptimizer {
-    private final ConcurrentHashMap<ChunkPos, BiomeType> biomeTypeCache;
-    private long lastCacheCleanup = 0;
-    
-    public BiomeAwareOptimizer() {
-        this.biomeTypeCache = new ConcurrentHashMap<>();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    public static final File BIOME_FILE = new File(
+        FabricLoader.getInstance().getConfigDir().toFile(),
+        "icedtea-biomes.json"
+    );
+
+    private static final TagKey<Biome> IS_PLAINS = conventionTag("plains");
+    private static final TagKey<Biome> IS_DESERT = conventionTag("desert");
+    private static final TagKey<Biome> IS_DENSE_VEGETATION = conventionTag("vegetation_dense");
+
+    private static final OptimizationProfile[] PROFILES = new OptimizationProfile[BiomeType.values().length];
+    static {
+        PROFILES[BiomeType.OCEAN.ordinal()] = new OptimizationProfile(0.95f, 200.0, true, 0.3f);
+        PROFILES[BiomeType.PLAINS.ordinal()] = new OptimizationProfile(0.90f, 180.0, true, 0.4f);
+        PROFILES[BiomeType.DESERT.ordinal()] = PROFILES[BiomeType.PLAINS.ordinal()];
+        PROFILES[BiomeType.SPARSE_FOREST.ordinal()] = new OptimizationProfile(0.75f, 140.0, true, 0.6f);
+        PROFILES[BiomeType.DENSE_FOREST.ordinal()] = new OptimizationProfile(0.50f, 100.0, false, 1.0f);
+        PROFILES[BiomeType.JUNGLE.ordinal()] = PROFILES[BiomeType.DENSE_FOREST.ordinal()];
+        PROFILES[BiomeType.UNKNOWN.ordinal()] = new OptimizationProfile(0.70f, 120.0, true, 0.7f);
     }
+
+    private static final int GRID_SIZE = 128;
+    private static final int GRID_MASK = GRID_SIZE - 1;
+    private static final long EMPTY = 0L;
+
+    private final long[] chunkBiomes = new long[GRID_SIZE * GRID_SIZE];
+    private volatile BiomeTable table;
     
     public OptimizationProfile getOptimizationProfile(ChunkPos chunkPos, Level level) {
-        BiomeType type = getBiomeType(chunkPos, level);
-        
-        return switch (type) {
-            case OCEAN -> new OptimizationProfile(
-                0.95f,
-                200.0,
-                true,
-                0.3f
-            );
-            case PLAINS, DESERT -> new OptimizationProfile(
-                0.90f,
-                180.0,
-                true,
-                0.4f
-            );
-            case SPARSE_FOREST -> new OptimizationProfile(
-                0.75f,
-                140.0,
-                true,
-                0.6f
-            );
-            case DENSE_FOREST, JUNGLE -> new OptimizationProfile(
-                0.50f,
-                100.0,
-                false,
-                1.0f
-            );
-            default -> new OptimizationProfile(
-                0.70f,
-                120.0,
-                true,
-                0.7f
-            );
-        };
-    }
-    
-    private BiomeType getBiomeType(ChunkPos chunkPos, Level level) {
-        BiomeType cached = biomeTypeCache.get(chunkPos);
-        if (cached != null) {
-            return cached;
+        if (level == null) return PROFILES[BiomeType.UNKNOWN.ordinal()];
+
+        BiomeTable biomes = getTable(level);
+        int index = ((chunkPos.z & GRID_MASK) * GRID_SIZE) + (chunkPos.x & GRID_MASK);
+        long entry = chunkBiomes[index];
+        if (entry != EMPTY && (entry >>> 16) == chunkTag(chunkPos.x, chunkPos.z)) {
+            return biomes.profileOf((int) (entry & 0xFFFF) - 1);
         }
         
-        if (level == null) return BiomeType.UNKNOWN;
-        
         BlockPos centerPos = new BlockPos(
             chunkPos.getMinBlockX() + 8,
             64,
@@ -68,62 +72,143 @@ public class BiomeAwareOptimizer {
         );
         
         if (!level.isLoaded(centerPos)) {
-            return BiomeType.UNKNOWN;
+            return PROFILES[BiomeType.UNKNOWN.ordinal()];
         }
         
-        Holder<Biome> biomeHolder = level.getBiome(centerPos);
-        BiomeType type = classifyBiome(biomeHolder);
-        
-        biomeTypeCache.put(chunkPos, type);
+        int biomeId = biomes.registry.getId(level.getBiome(centerPos).value());
+        chunkBiomes[index] = (chunkTag(chunkPos.x, chunkPos.z) << 16) | ((biomeId + 1) & 0xFFFF);
+        return biomes.profileOf(biomeId);
+    }
+    
+    private BiomeTable getTable(Level level) {
+        Registry<Biome> registry = level.registryAccess().registryOrThrow(Registries.BIOME);
+        BiomeTable biomes = table;
+        if (biomes != null && biomes.registry == registry) {
+            return biomes;
+        }
+        return rebuild(registry);
+    }
+    
+    private synchronized BiomeTable rebuild(Registry<Biome> registry) {
+        BiomeTable biomes = table;
+        if (biomes != null && biomes.registry == registry) {
+            return biomes;
+        }
         
-        cleanupCacheIfNeeded();
+        Map<String, String> overrides = loadOverrides();
+        OptimizationProfile[] profiles = new OptimizationProfile[registry.size()];
+        int overridden = 0;
+        for (Map.Entry<ResourceKey<Biome>, Biome> entry : registry.entrySet()) {
+            int id = registry.getId(entry.getValue());
+            if (id < 0 || id >= profiles.length) continue;
+            
+            Holder<Biome> holder = registry.wrapAsHolder(entry.getValue());
+            BiomeType type = findOverride(overrides, entry.getKey().location().toString(), holder);
+            if (type != null) {
+                overridden++;
+            } else {
+                type = classifyBiome(holder);
+            }
+            profiles[id] = PROFILES[type.ordinal()];
+        }
         
-        return type;
+        Arrays.fill(chunkBiomes, EMPTY);
+        biomes = new BiomeTable(registry, profiles);
+        table = biomes;
+        if (IcedTeaMod.isDebugMode()) {
+            IcedTeaMod.LOGGER.info("[IcedTea][BIOME] Resolved {} biomes ({} overridden)", profiles.length, overridden);
+        }
+        return biomes;
     }
     
-    private BiomeType classifyBiome(Holder<Biome> biomeHolder) {
-        String biomeName = biomeHolder.toString().toLowerCase();
-        
-        if (biomeName.contains("ocean") || biomeName.contains("deep")) {
+    private BiomeType classifyBiome(Holder<Biome> holder) {
+        if (holder.is(BiomeTags.IS_OCEAN) || holder.is(BiomeTags.IS_DEEP_OCEAN)) {
             return BiomeType.OCEAN;
         }
-        if (biomeName.contains("plains") || biomeName.contains("savanna")) {
-            return BiomeType.PLAINS;
+        if (holder.is(BiomeTags.IS_JUNGLE)) {
+            return BiomeType.JUNGLE;
         }
-        if (biomeName.contains("desert")) {
-            return BiomeType.DESERT;
+        if (holder.is(BiomeTags.IS_FOREST) || holder.is(BiomeTags.IS_TAIGA)) {
+            return holder.is(IS_DENSE_VEGETATION) ? BiomeType.DENSE_FOREST : BiomeType.SPARSE_FOREST;
         }
-        if (biomeName.contains("jungle")) {
-            return BiomeType.JUNGLE;
+        if (holder.is(IS_DESERT) || holder.is(BiomeTags.IS_BADLANDS)) {
+            return BiomeType.DESERT;
         }
-        if (biomeName.contains("forest")) {
-            if (biomeName.contains("dark") || biomeName.contains("old_growth")) {
-                return BiomeType.DENSE_FOREST;
-            }
-            return BiomeType.SPARSE_FOREST;
+        if (holder.is(IS_PLAINS) || holder.is(BiomeTags.IS_SAVANNA)) {
+            return BiomeType.PLAINS;
         }
         
         return BiomeType.UNKNOWN;
     }
     
-    private void cleanupCacheIfNeeded() {
-        long now = System.currentTimeMillis();
-        if (now - lastCacheCleanup > 30000) {
-            if (biomeTypeCache.size() > 2000) {
-                Minecraft mc = Minecraft.getInstance();
-                if (mc.player != null) {
-                    ChunkPos playerPos = new ChunkPos(mc.player.blockPosition());
-                    biomeTypeCache.entrySet().removeIf(entry ->
-                        entry.getKey().getChessboardDistance(playerPos) > 32
-                    );
+    private BiomeType findOverride(Map<String, String> overrides, String biomeId, Holder<Biome> holder) {
+        if (overrides.isEmpty()) return null;
+        
+        String value = overrides.get(biomeId);
+        if (value == null) {
+            for (Map.Entry<String, String> entry : overrides.entrySet()) {
+                String key = entry.getKey();
+                if (!key.startsWith("#")) continue;
+                
+                ResourceLocation tag = ResourceLocation.tryParse(key.substring(1));
+                if (tag != null && holder.is(TagKey.create(Registries.BIOME, tag))) {
+                    value = entry.getValue();
+                    break;
                 }
             }
-            lastCacheCleanup = now;
         }
+        if (value == null) return null;
+        
+        try {
+            return BiomeType.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            IcedTeaMod.LOGGER.error("Unknown biome type '{}' for {} in {}", value, biomeId, BIOME_FILE.getName());
+            return null;
+        }
+    }
+    
+    private Map<String, String> loadOverrides() {
+        if (!BIOME_FILE.exists()) {
+            saveDefaultOverrides();
+            return Map.of();
+        }
+        
+        try (FileReader reader = new FileReader(BIOME_FILE)) {
+            BiomeOverrides file = GSON.fromJson(reader, BiomeOverrides.class);
+            if (file == null || file.overrides == null) return Map.of();
+            return file.overrides;
+        } catch (IOException | JsonParseException e) {
+            IcedTeaMod.LOGGER.error("Failed to load biome overrides, using tag classification", e);
+            return Map.of();
+        }
+    }
+    
+    private void saveDefaultOverrides() {
+        try {
+            BIOME_FILE.getParentFile().mkdirs();
+            try (FileWriter writer = new FileWriter(BIOME_FILE)) {
+                GSON.toJson(new BiomeOverrides(), writer);
+            }
+        } catch (IOException e) {
+            IcedTeaMod.LOGGER.error("Failed to save biome overrides", e);
+        }
+    }
+    
+    private static long chunkTag(int chunkX, int chunkZ) {
+        return ((long) (chunkX & 0xFFFFFF) << 24) | (chunkZ & 0xFFFFFF);
+    }
+    
+    private static TagKey<Biome> conventionTag(String path) {
+        return TagKey.create(Registries.BIOME, new ResourceLocation("c", path));
+    }
+    
+    public void onTagsLoaded() {
+        table = null;
     }
     
     public void clear() {
-        biomeTypeCache.clear();
+        table = null;
+        Arrays.fill(chunkBiomes, EMPTY);
     }
     
     public enum BiomeType {
@@ -150,4 +235,25 @@ public class BiomeAwareOptimizer {
             this.detailMultiplier = detailMultiplier;
         }
     }
-}
\ No newline at end of file
+    
+    private static class BiomeTable {
+        final Registry<Biome> registry;
+        final OptimizationProfile[] profiles;
+        
+        BiomeTable(Registry<Biome> registry, OptimizationProfile[] profiles) {
+            this.registry = registry;
+            this.profiles = profiles;
+        }
+        
+        OptimizationProfile profileOf(int biomeId) {
+            if (biomeId < 0 || biomeId >= profiles.length || profiles[biomeId] == null) {
+                return PROFILES[BiomeType.UNKNOWN.ordinal()];
+            }
+            return profiles[biomeId];
+        }
+    }
+    
+    private static class BiomeOverrides {
+        Map<String, String> overrides = new LinkedHashMap<>();
+    }
+}
@@ -1,101 +1,92 @@
 package com.tejas.icedtea.optimization;
 
+import com.tejas.icedtea.util.ConcurrentLongIntMap;
 import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.level.ChunkPos;
-import net.minecraft.world.phys.Vec3;
-import java.util.concurrent.ConcurrentHashMap;
+import net.minecraft.world.level.Level;
 
 public class LowDensityOptimizer {
-    private final ConcurrentHashMap<ChunkPos, EntityDensityData> densityMap;
-    private long lastAnalysis = 0;
-    private static final long ANALYSIS_INTERVAL = 1000;
+    private static final OptimizationSettings EMPTY_SETTINGS = new OptimizationSettings(true, 0.95f, 4, true);
+    private static final OptimizationSettings SPARSE_SETTINGS = new OptimizationSettings(true, 0.85f, 3, true);
+    private static final OptimizationSettings BUSY_SETTINGS = new OptimizationSettings(false, 0.70f, 2, false);
+    private static final OptimizationSettings CROWDED_SETTINGS = new OptimizationSettings(false, 0.50f, 1, false);
+
+    private final ConcurrentLongIntMap entityCounts = new ConcurrentLongIntMap(1024, 0);
+    private Level trackedLevel;
     
-    public LowDensityOptimizer() {
-        this.densityMap = new ConcurrentHashMap<>();
+    public void onEntityLoad(Entity entity, Level level) {
+        if (level != trackedLevel) {
+            entityCounts.clear();
+            trackedLevel = level;
+        }
+        entityCounts.addTo(chunkKeyOf(entity), 1);
     }
     
-    public void analyzeArea(Minecraft mc) {
-        long now = System.currentTimeMillis();
-        if (now - lastAnalysis < ANALYSIS_INTERVAL) {
-            return;
+    public void onEntityUnload(Entity entity, Level level) {
+        if (level == trackedLevel) {
+            decrement(chunkKeyOf(entity));
         }
-        
-        if (mc.level == null || mc.player == null) {
+    }
+    
+    public void onEntitySectionMove(long fromSectionKey, long toSectionKey) {
+        long from = ChunkPos.asLong(SectionPos.x(fromSectionKey), SectionPos.z(fromSectionKey));
+        long to = ChunkPos.asLong(SectionPos.x(toSectionKey), SectionPos.z(toSectionKey));
+        if (from == to) {
             return;
         }
-        
-        densityMap.clear();
-        
-        Vec3 playerPos = mc.player.position();
-        ChunkPos playerChunk = new ChunkPos(mc.player.blockPosition());
-        
-        for (Entity entity : mc.level.entitiesForRendering()) {
-            ChunkPos entityChunk = new ChunkPos(entity.blockPosition());
-            
-            densityMap.computeIfAbsent(entityChunk, k -> new EntityDensityData())
-                     .incrementCount();
-        }
-        
-        lastAnalysis = now;
+        decrement(from);
+        entityCounts.addTo(to, 1);
     }
     
     public boolean isLowDensityArea(ChunkPos pos) {
-        EntityDensityData data = densityMap.get(pos);
-        return data == null || data.entityCount < 3;
+        return getEntityCount(pos) < 3;
     }
     
     public int getEntityCount(ChunkPos pos) {
-        EntityDensityData data = densityMap.get(pos);
-        return data != null ? data.entityCount : 0;
+        return entityCounts.get(ChunkPos.asLong(pos.x, pos.z));
     }
     
     public OptimizationSettings getSettings(ChunkPos pos) {
         int count = getEntityCount(pos);
         
         if (count == 0) {
-            return new OptimizationSettings(
-                true,
-                0.95f,
-                4,
-                true
-            );
+            return EMPTY_SETTINGS;
         } else if (count < 3) {
-            return new OptimizationSettings(
-                true,
-                0.85f,
-                3,
-                true
-            );
+            return SPARSE_SETTINGS;
         } else if (count < 10) {
-            return new OptimizationSettings(
-                false,
-                0.70f,
-                2,
-                false
-            );
+            return BUSY_SETTINGS;
         } else {
-            return new OptimizationSettings(
-                false,
-                0.50f,
-                1,
-                false
-            );
+            return CROWDED_SETTINGS;
         }
     }
     
     public void clear() {
-        densityMap.clear();
+        entityCounts.clear();
+        
+        Minecraft mc = Minecraft.getInstance();
+        trackedLevel = mc.level;
+        if (mc.level == null) {
+            return;
+        }
+        for (Entity entity : mc.level.entitiesForRendering()) {
+            entityCounts.addTo(chunkKeyOf(entity), 1);
+        }
     }
     
-    private static class EntityDensityData {
-        int entityCount = 0;
-        
-        void incrementCount() {
-            entityCount++;
+    private void decrement(long chunkKey) {
+        if (entityCounts.addTo(chunkKey, -1) <= 0) {
+            entityCounts.remove(chunkKey);
         }
     }
     
+    private static long chunkKeyOf(Entity entity) {
+        BlockPos pos = entity.blockPosition();
+        return ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+    }
+    
     public static class OptimizationSettings {
         public final boolean skipDetailedChecks;
         public final float cullingAggressiveness;
@@ -112,4 +103,4 @@ public class LowDensityOptimizer {
             this.enableDistanceSkipping = enableDistanceSkipping;
         }
     }
-}
\ No newline at end of file
+}
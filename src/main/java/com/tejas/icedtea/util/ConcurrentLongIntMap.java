@@ -0,0 +1,209 @@
+package com.tejas.icedtea.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ConcurrentLongIntMap {
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    private static final long REMOVED_KEY = Long.MIN_VALUE + 1;
+    private static final int MIN_CAPACITY = 16;
+
+    private final int missingValue;
+    private final int initialCapacity;
+    private volatile Table table;
+    private int size;
+    private int used;
+
+    public ConcurrentLongIntMap(int expectedSize, int missingValue) {
+        this.missingValue = missingValue;
+        this.initialCapacity = capacityFor(expectedSize);
+        this.table = new Table(initialCapacity);
+    }
+
+    public int get(long key) {
+        Table t = table;
+        int mask = t.mask;
+        int i = mix(key) & mask;
+        while (true) {
+            long k = t.keys.get(i);
+            if (k == key) {
+                return t.values.get(i);
+            }
+            if (k == EMPTY_KEY) {
+                return missingValue;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != missingValue;
+    }
+
+    public synchronized int put(long key, int value) {
+        checkKey(key);
+        Table t = table;
+        int slot = find(t, key);
+        if (slot >= 0) {
+            int previous = t.values.get(slot);
+            t.values.set(slot, value);
+            return previous;
+        }
+
+        insert(t, key, value);
+        return missingValue;
+    }
+
+    public synchronized int addTo(long key, int delta) {
+        checkKey(key);
+        Table t = table;
+        int slot = find(t, key);
+        if (slot >= 0) {
+            int updated = t.values.get(slot) + delta;
+            t.values.set(slot, updated);
+            return updated;
+        }
+
+        insert(t, key, delta);
+        return delta;
+    }
+
+    public synchronized int remove(long key) {
+        Table t = table;
+        int slot = find(t, key);
+        if (slot < 0) {
+            return missingValue;
+        }
+
+        int previous = t.values.get(slot);
+        t.keys.set(slot, REMOVED_KEY);
+        size--;
+        return previous;
+    }
+
+    public synchronized void removeIf(EntryPredicate predicate) {
+        Table t = table;
+        for (int i = 0; i < t.capacity; i++) {
+            long k = t.keys.get(i);
+            if (k != EMPTY_KEY && k != REMOVED_KEY && predicate.test(k, t.values.get(i))) {
+                t.keys.set(i, REMOVED_KEY);
+                size--;
+            }
+        }
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        Table t = table;
+        for (int i = 0; i < t.capacity; i++) {
+            long k = t.keys.get(i);
+            if (k != EMPTY_KEY && k != REMOVED_KEY) {
+                consumer.accept(k, t.values.get(i));
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        table = new Table(initialCapacity);
+        size = 0;
+        used = 0;
+    }
+
+    private int find(Table t, long key) {
+        int mask = t.mask;
+        int i = mix(key) & mask;
+        while (true) {
+            long k = t.keys.get(i);
+            if (k == key) return i;
+            if (k == EMPTY_KEY) return -1;
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void insert(Table t, long key, int value) {
+        if ((used + 1) * 2 > t.capacity) {
+            t = rehash();
+        }
+
+        int mask = t.mask;
+        int i = mix(key) & mask;
+        while (t.keys.get(i) != EMPTY_KEY) {
+            i = (i + 1) & mask;
+        }
+
+        t.values.set(i, value);
+        t.keys.set(i, key);
+        size++;
+        used++;
+    }
+
+    private Table rehash() {
+        Table old = table;
+        Table fresh = new Table(Math.max(initialCapacity, capacityFor((size + 1) * 2)));
+        int mask = fresh.mask;
+        for (int i = 0; i < old.capacity; i++) {
+            long k = old.keys.get(i);
+            if (k == EMPTY_KEY || k == REMOVED_KEY) continue;
+
+            int j = mix(k) & mask;
+            while (fresh.keys.get(j) != EMPTY_KEY) {
+                j = (j + 1) & mask;
+            }
+            fresh.values.set(j, old.values.get(i));
+            fresh.keys.set(j, k);
+        }
+
+        used = size;
+        table = fresh;
+        return fresh;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY_KEY || key == REMOVED_KEY) {
+            throw new IllegalArgumentException("Reserved key: " + key);
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicIntegerArray values;
+        final int capacity;
+        final int mask;
+
+        Table(int capacity) {
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicIntegerArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                keys.set(i, EMPTY_KEY);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    @FunctionalInterface
+    public interface EntryPredicate {
+        boolean test(long key, int value);
+    }
+}
@@ -2,26 +2,79 @@ package com.tejas.icedtea.util;
 
 import com.tejas.icedtea.IcedTeaMod;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ThreadPoolManager {
-    private static ExecutorService executor;
+    private static volatile ExecutorService executor;
+    private static volatile ForkJoinPool cullingPool;
     private static int threadCount;
     
     public static void initialize(int threads) {
         threadCount = Math.max(2, threads);
-        executor = new ThreadPoolExecutor(
-            threadCount,
-            threadCount,
+        executor = createExecutor();
+        cullingPool = createCullingPool();
+        
+        IcedTeaMod.LOGGER.info("Initialized thread pools with {} threads ({} culling, {} background)",
+            threadCount, getCullingThreadCount(), getWorkerThreadCount());
+    }
+    
+    public static ExecutorService getExecutor() {
+        ExecutorService current = executor;
+        if (current == null || current.isShutdown()) {
+            synchronized (ThreadPoolManager.class) {
+                if (executor == null || executor.isShutdown()) {
+                    ensureThreadCount();
+                    executor = createExecutor();
+                }
+                current = executor;
+            }
+        }
+        return current;
+    }
+    
+    public static ForkJoinPool getCullingPool() {
+        ForkJoinPool current = cullingPool;
+        if (current == null || current.isShutdown()) {
+            synchronized (ThreadPoolManager.class) {
+                if (cullingPool == null || cullingPool.isShutdown()) {
+                    ensureThreadCount();
+                    cullingPool = createCullingPool();
+                }
+                current = cullingPool;
+            }
+        }
+        return current;
+    }
+    
+    private static void ensureThreadCount() {
+        if (threadCount == 0) {
+            threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 2);
+        }
+    }
+    
+    private static int getCullingThreadCount() {
+        return Math.max(1, (threadCount + 1) / 2);
+    }
+    
+    private static int getWorkerThreadCount() {
+        return Math.max(1, threadCount - getCullingThreadCount());
+    }
+    
+    private static ExecutorService createExecutor() {
+        int workers = getWorkerThreadCount();
+        return new ThreadPoolExecutor(
+            workers,
+            workers,
             60L,
             TimeUnit.SECONDS,
             new LinkedBlockingQueue<>(1024),
             new ThreadFactory() {
-                private int counter = 0;
+                private final AtomicInteger counter = new AtomicInteger(0);
                 
                 @Override
                 public Thread newThread(Runnable r) {
                     Thread thread = new Thread(r);
-                    thread.setName("IcedTea-Worker-" + counter++);
+                    thread.setName("IcedTea-Worker-" + counter.getAndIncrement());
                     thread.setDaemon(true);
                     thread.setPriority(Thread.NORM_PRIORITY - 1);
                     return thread;
@@ -29,15 +82,26 @@ public class ThreadPoolManager {
             },
             new ThreadPoolExecutor.CallerRunsPolicy()
         );
-        
-        IcedTeaMod.LOGGER.info("Initialized thread pool with {} threads", threadCount);
     }
     
-    public static ExecutorService getExecutor() {
-        if (executor == null || executor.isShutdown()) {
-            initialize(Runtime.getRuntime().availableProcessors() - 2);
-        }
-        return executor;
+    private static ForkJoinPool createCullingPool() {
+        return new ForkJoinPool(
+            getCullingThreadCount(),
+            new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+                private final AtomicInteger counter = new AtomicInteger(0);
+                
+                @Override
+                public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("IcedTea-Culling-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                }
+            },
+            (thread, throwable) -> IcedTeaMod.LOGGER.error("Uncaught exception in culling worker", throwable),
+            false
+        );
     }
     
     public static <T> Future<T> submit(Callable<T> task) {
@@ -53,6 +117,9 @@ public class ThreadPoolManager {
     }
     
     public static void shutdown() {
+        if (cullingPool != null && !cullingPool.isShutdown()) {
+            cullingPool.shutdownNow();
+        }
         if (executor != null && !executor.isShutdown()) {
             IcedTeaMod.LOGGER.info("Shutting down thread pool...");
             executor.shutdown();